@@ -9,15 +9,85 @@ package main;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
 import java.awt.Toolkit;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.Set;
 
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import main.java.AspectRatio;
+import main.java.Calculations;
+import main.java.Camera;
+import main.java.Coordinate;
+import main.java.FrameCache;
+import main.java.Orientation;
+import main.java.PointCloud;
+import main.java.ProjectedPoints;
+import main.java.Rasterizer;
 
 public class GUI extends JPanel implements Runnable{
 
+	// How fast the camera moves while a key is held, how often it is moved, and how far it turns for every
+	// pixel that the mouse is dragged.
+	private static final double MOVEMENT_SPEED_IN_UNITS_PER_SECOND = 5.;
+	private static final int MOVEMENT_TICK_IN_MILLIS = 10;
+	private static final double MOUSE_SENSITIVITY_IN_RADIANS_PER_PIXEL = Math.toRadians(0.25);
+	private static final double DIVERGENCE_ANGLE_STEP_IN_RADIANS = Math.toRadians(2);
+	private static final double MIN_DIVERGENCE_ANGLE_IN_RADIANS = Math.toRadians(5);
+	private static final double MAX_DIVERGENCE_ANGLE_IN_RADIANS = Math.toRadians(80);
+
+	// The state of the camera. Everything here is only ever touched on the event dispatch thread.
+	private double camX = 0.;
+	private double camY = 0.;
+	private double camZ = -10.;
+	private double yaw = 0.;
+	private double pitch = 0.;
+	private double divergenceAngle = Camera.DEFAULT_DIVERGENCE_ANGLE_IN_RADIANS;
+	private Point lastMousePosition;
+
+	// The movement keys that are held down. The camera is moved by the movement timer rather than by the
+	// key events themselves, so that it doesn't depend on the OS key repeat, and so that holding two keys
+	// moves diagonally. `keyInputNanos` is when the first key of the current movement was pressed, or 0
+	// once a tick has used it, and `lastMovementNanos` is when the camera was last moved.
+	private final Set<Integer> heldKeys = new HashSet<>();
+	private final Timer movementTimer = new Timer(MOVEMENT_TICK_IN_MILLIS, e -> moveCamera());
+	private long keyInputNanos = 0;
+	private long lastMovementNanos = 0;
+
+	// The scene. Its version changes whenever it does, so the cache never hands back stale frames.
+	private final PointCloud scene = new PointCloud(16);
+	private final FrameCache frameCache = new FrameCache(64L * 1024 * 1024, 1e-3, 1e-4, true);
+
+	// The frame that is currently on screen. It is only looked up again when the camera, the scene or the
+	// size of the panel changes, so redrawing just the overlay doesn't touch the frame cache.
+	private BufferedImage currentFrame;
+	private long currentFrameSceneVersion = -1;
+	private boolean cameraHasChanged = true;
+	private int overlayHeightInPixels = 0;
+
+	// Input-to-flush latency: the time from an input event being handled to the frame for it being drawn
+	// and the graphics pipeline being flushed with Toolkit.sync(). It doesn't include the time the display
+	// itself takes to show the frame. `pendingInputNanos` is the time of the oldest input that hasn't been
+	// flushed yet, or 0 if everything has.
+	private long pendingInputNanos = 0;
+	private double lastLatencyInMillis = 0.;
+	private double averageLatencyInMillis = 0.;
+	private double worstLatencyInMillis = 0.;
+
 	public static void main(String[] args) {
 		SwingUtilities.invokeLater(new GUI());
 	}
@@ -83,6 +153,165 @@ public class GUI extends JPanel implements Runnable{
 		frame.setSize(frameWidthInPixels, frameHeightInPixels);
 	}
 	
+	/*
+	 * Returns the camera as it currently stands. The aspect ratio always matches the panel, so resizing
+	 * the window resizes the canvas as well.
+	 */
+	private Camera currentCamera () {
+		AspectRatio aspectRatio = new AspectRatio(this.getWidth(), this.getHeight());
+		Orientation orientation = new Orientation(yaw, pitch, 0.);
+		Coordinate camCoords = new Coordinate(camX, camY, camZ);
+		return new Camera(aspectRatio, orientation, camCoords, divergenceAngle);
+	}
+	
+	/*
+	 * Called by every input handler once it has changed the camera. Remembers when the input arrived
+	 * so that we can work out how long it took to reach the screen, then asks for a new frame straight away.
+	 * 
+	 * @param inputNanos the value of System.nanoTime() when the input was received.
+	 */
+	private void cameraChanged (long inputNanos) {
+		if (pendingInputNanos == 0)
+			pendingInputNanos = inputNanos;
+		cameraHasChanged = true;
+		repaint();
+	}
+	
+	/*
+	 * WASD moves the camera along the ground, relative to the way that it is facing.
+	 * Space and shift move it straight up and down.
+	 */
+	private static boolean isMovementKey (int keyCode) {
+		switch (keyCode) {
+		case KeyEvent.VK_W:
+		case KeyEvent.VK_A:
+		case KeyEvent.VK_S:
+		case KeyEvent.VK_D:
+		case KeyEvent.VK_SPACE:
+		case KeyEvent.VK_SHIFT:
+			return true;
+		default:
+			return false;
+		}
+	}
+	
+	private final KeyAdapter keyboardControls = new KeyAdapter() {
+		@Override
+		public void keyPressed (KeyEvent e) {
+			// Repeated presses from holding a key down are ignored, since the key is already held.
+			if (!isMovementKey(e.getKeyCode()) || !heldKeys.add(e.getKeyCode()))
+				return;
+
+			if (!movementTimer.isRunning()) {
+				keyInputNanos = System.nanoTime();
+				lastMovementNanos = keyInputNanos;
+				// Move straight away rather than waiting for the first tick.
+				movementTimer.setInitialDelay(0);
+				movementTimer.start();
+			}
+		}
+
+		@Override
+		public void keyReleased (KeyEvent e) {
+			heldKeys.remove(e.getKeyCode());
+		}
+	};
+	
+	// Nothing is held down once the panel loses focus, since it won't hear about keys being released.
+	private final FocusAdapter focusControls = new FocusAdapter() {
+		@Override
+		public void focusLost (FocusEvent e) {
+			heldKeys.clear();
+		}
+	};
+	
+	/*
+	 * Called by the movement timer. Moves the camera by however far it would have gone at
+	 * MOVEMENT_SPEED_IN_UNITS_PER_SECOND since it was last moved, and stops the timer once no keys are held.
+	 */
+	private void moveCamera () {
+		long nowNanos = System.nanoTime();
+		double elapsedSeconds = (nowNanos - lastMovementNanos) / 1e9;
+		lastMovementNanos = nowNanos;
+		if (heldKeys.isEmpty()) {
+			movementTimer.stop();
+			return;
+		}
+
+		// How far to go forwards, to the right and up, each between -1 and 1.
+		double forwards = axis(KeyEvent.VK_W, KeyEvent.VK_S);
+		double right = axis(KeyEvent.VK_D, KeyEvent.VK_A);
+		double up = axis(KeyEvent.VK_SPACE, KeyEvent.VK_SHIFT);
+		if (forwards == 0 && right == 0 && up == 0)
+			return;
+
+		// Moving diagonally along the ground shouldn't be any faster than moving straight.
+		double groundLength = Math.hypot(forwards, right);
+		if (groundLength > 1) {
+			forwards /= groundLength;
+			right /= groundLength;
+		}
+
+		// The directions that the camera would move in for W and D, ignoring pitch.
+		double forwardX = -Math.sin(yaw);
+		double forwardZ = Math.cos(yaw);
+		double rightX = Math.cos(yaw);
+		double rightZ = Math.sin(yaw);
+
+		double distance = MOVEMENT_SPEED_IN_UNITS_PER_SECOND * elapsedSeconds;
+		camX += (forwardX * forwards + rightX * right) * distance;
+		camZ += (forwardZ * forwards + rightZ * right) * distance;
+		camY += up * distance;
+
+		// The first move is measured from the key press; after that, from the tick that made it.
+		cameraChanged(keyInputNanos != 0 ? keyInputNanos : nowNanos);
+		keyInputNanos = 0;
+	}
+	
+	private double axis (int positiveKey, int negativeKey) {
+		return (heldKeys.contains(positiveKey) ? 1 : 0) - (heldKeys.contains(negativeKey) ? 1 : 0);
+	}
+	
+	/*
+	 * Dragging the mouse turns the camera, and scrolling changes the field of view.
+	 */
+	private final MouseAdapter mouseControls = new MouseAdapter() {
+		@Override
+		public void mousePressed (MouseEvent e) {
+			lastMousePosition = e.getPoint();
+			requestFocusInWindow();
+		}
+
+		@Override
+		public void mouseDragged (MouseEvent e) {
+			long inputNanos = System.nanoTime();
+			Point mousePosition = e.getPoint();
+			if (lastMousePosition == null)
+				lastMousePosition = mousePosition;
+
+			int deltaX = mousePosition.x - lastMousePosition.x;
+			int deltaY = mousePosition.y - lastMousePosition.y;
+			lastMousePosition = mousePosition;
+			if (deltaX == 0 && deltaY == 0)
+				return;
+
+			// Increasing the yaw turns the camera to the left, and increasing the pitch tilts it downwards.
+			yaw -= deltaX * MOUSE_SENSITIVITY_IN_RADIANS_PER_PIXEL;
+			pitch += deltaY * MOUSE_SENSITIVITY_IN_RADIANS_PER_PIXEL;
+			pitch = Math.max(-Math.PI / 2, Math.min(Math.PI / 2, pitch));
+			cameraChanged(inputNanos);
+		}
+
+		@Override
+		public void mouseWheelMoved (MouseWheelEvent e) {
+			long inputNanos = System.nanoTime();
+			// Scrolling up zooms in.
+			divergenceAngle += e.getPreciseWheelRotation() * DIVERGENCE_ANGLE_STEP_IN_RADIANS;
+			divergenceAngle = Math.max(MIN_DIVERGENCE_ANGLE_IN_RADIANS, Math.min(MAX_DIVERGENCE_ANGLE_IN_RADIANS, divergenceAngle));
+			cameraChanged(inputNanos);
+		}
+	};
+	
 	public void run ()
 	{
 		// Create new frame, do boilerplate stuff.
@@ -90,63 +319,113 @@ public class GUI extends JPanel implements Runnable{
 		JFrame frame = new JFrame("GUI");
 		frameBoilerplate(frame);
 
-		// All of the strings that we use to prompt the user for input.
-		String camCoordMessageCaption = "Camera Coordinates";
-		String camCoordIntroduction = "Enter the coordinates of the camera in 3D space.";
-		String[] camCoordInputLabels = { "X:", "Y:", "Z:"};
-		
-		String orientationMessageCaption = "Orientation";
-		String orientationIntroduction = "Enter the rotation about each of the axes in degrees so that we can create an orientation unit vector.";
-		String[] orientationInputLabels = {
-				"Pitch - Rotation about the X axis:",
-				"Yaw - Rotation about the Y axis:",
-				"Roll - Rotation about the Z axis:"};
-		
+		// The camera is controlled live with the keyboard and mouse, so the only thing we still
+		// need to ask for is the scene itself.
 		String targetPointMessageCaption = "Target Point";
-		String targetPointIntroduction = "Enter the 3D coordinates of the point that you would like to view.";
+		String targetPointIntroduction = "Enter the 3D coordinates of the point that you would like to view. "
+				+ "Once it appears, move with WASD, space and shift, drag the mouse to look around and scroll to zoom.";
 		String[] targetPointInputLabels = {"X:", "Y:", "Z:"};
-		
-		String aspectRatioMessageCaption = "Aspect Ratio";
-		String aspectRatioIntroduction = "Enter the width and height of the 2D canvas in pixels.";
-		String[] aspectRatioLabels = {
-				"Width of the canvas in pixels: ",
-				"Height of the canvas in pixels: "};
-
-		// Collect user input, bind the input to variables.
-		double[] camCoords = getInputData(frame, camCoordInputLabels, camCoordMessageCaption, camCoordIntroduction);
-		double[] orientationInDegrees = getInputData(frame, orientationInputLabels, orientationMessageCaption, orientationIntroduction);
+
 		double[] targetPoint = getInputData(frame, targetPointInputLabels, targetPointMessageCaption, targetPointIntroduction);
-		// Technically this should be an integer rather than a double, but we need all the data types to be the same so that
-		// they can be passed into our helper functions.
-		double[] aspectRatioInPixels = getInputData(frame, aspectRatioLabels, aspectRatioMessageCaption, aspectRatioIntroduction);
-	}
-	
-	public void paint(Graphics g)
-	{
-		int width = this.getWidth();
-		int height = this.getHeight();
-		int centerX = width / 2;
-		int centerY = height / 2;
 
 		// These will probably be user inputs eventually, but for now,
 		// I'll just set them to something.
-		
+		int pointColor = 0xFF000000;
+		float pointRadiusAsFractionOfWidth = 1 / 200f;
+		scene.add(targetPoint[0], targetPoint[1], targetPoint[2], pointColor, pointRadiusAsFractionOfWidth, PointCloud.FULL_INTENSITY);
+
+		this.addKeyListener(keyboardControls);
+		this.addFocusListener(focusControls);
+		this.addMouseListener(mouseControls);
+		this.addMouseMotionListener(mouseControls);
+		this.addMouseWheelListener(mouseControls);
+		this.setFocusable(true);
+		this.requestFocusInWindow();
+		repaint();
+	}
+	
+	/*
+	 * Renders the scene from the point of view of a camera. This is the expensive part, so `paint` only
+	 * calls it when the frame cache doesn't already have the frame.
+	 * 
+	 * @param camera the camera to render the scene from.
+	 * @return the rendered frame.
+	 */
+	private BufferedImage renderFrame (Camera camera)
+	{
+		int width = camera.aspectRatio.getWidth();
+		int height = camera.aspectRatio.getHeight();
 		Color backgroundColor = Color.WHITE;
-		Color pointColor = Color.BLACK;
-		int pointRadiusInPixels = width / 200;
+		
+		BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = frame.createGraphics();
 		
 		// Set the background color.
 		g.setColor(backgroundColor);
 		g.fillRect(0, 0, width, height);
+		g.dispose();
 		
-		g.setColor(pointColor);
-		g.fillOval(
-				centerX - pointRadiusInPixels,
-				centerY - pointRadiusInPixels, 
-				pointRadiusInPixels * 2, 
-				pointRadiusInPixels * 2
-				);
+		// The colors, sizes and intensities of the points stay in the scene's arrays the whole way through;
+		// the projected points only carry their pixel and the index of the point they came from.
+		ProjectedPoints projected = scene.project(Calculations::convert3DRealVectorTo2DRealVector, camera);
+		Rasterizer.rasterize(scene, projected, frame);
+		return frame;
+	}
+	
+	/*
+	 * Draws the latency and cache statistics in the top left corner. This is drawn over the cached frame
+	 * rather than into it, so that it is always up to date, and it remembers how tall it is so that `paint`
+	 * can redraw just this part of the panel.
+	 */
+	private void paintOverlay (Graphics g)
+	{
+		int lineHeight = g.getFontMetrics().getHeight();
+		int x = lineHeight / 2;
+		int y = lineHeight;
 		
+		g.setColor(Color.DARK_GRAY);
+		g.drawString(String.format("Input to frame flushed: %.1f ms (average %.1f ms, worst %.1f ms)",
+				lastLatencyInMillis, averageLatencyInMillis, worstLatencyInMillis), x, y);
+		g.drawString(String.format("Frame cache: %.0f%% hits", frameCache.getHitRate() * 100), x, y + lineHeight);
+		g.drawString(String.format("Camera: (%.2f, %.2f, %.2f), yaw %.0f\u00b0, pitch %.0f\u00b0, divergence %.0f\u00b0",
+				camX, camY, camZ, Math.toDegrees(yaw), Math.toDegrees(pitch), Math.toDegrees(divergenceAngle)), x, y + lineHeight * 2);
+		overlayHeightInPixels = y + lineHeight * 3;
+	}
+	
+	public void paint(Graphics g)
+	{
+		int width = this.getWidth();
+		int height = this.getHeight();
+		if (width <= 0 || height <= 0)
+			return;
+		
+		boolean frameIsStale = currentFrame == null
+				|| cameraHasChanged
+				|| currentFrameSceneVersion != scene.getVersion()
+				|| currentFrame.getWidth() != width
+				|| currentFrame.getHeight() != height;
+		if (frameIsStale) {
+			currentFrameSceneVersion = scene.getVersion();
+			currentFrame = frameCache.getOrRender(currentFrameSceneVersion, currentCamera(), this::renderFrame);
+			cameraHasChanged = false;
+		}
+		g.drawImage(currentFrame, 0, 0, null);
+		paintOverlay(g);
+		
+		// Flush the graphics pipeline before we stop the clock. This is as close to the screen as Java
+		// lets us measure.
+		Toolkit.getDefaultToolkit().sync();
+		if (pendingInputNanos != 0) {
+			lastLatencyInMillis = (System.nanoTime() - pendingInputNanos) / 1e6;
+			// An exponential moving average, so that one slow frame doesn't hide for long.
+			averageLatencyInMillis = averageLatencyInMillis == 0. ? lastLatencyInMillis : averageLatencyInMillis * 0.9 + lastLatencyInMillis * 0.1;
+			worstLatencyInMillis = Math.max(worstLatencyInMillis, lastLatencyInMillis);
+			pendingInputNanos = 0;
+
+			// The overlay that was just drawn still shows the previous measurement, so redraw it with this
+			// one. Nothing is pending any more, so this repaint isn't measured itself.
+			repaint(0, 0, width, overlayHeightInPixels);
+		}
 	}
 
 }
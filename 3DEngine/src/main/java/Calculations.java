@@ -325,7 +325,7 @@ public final class Calculations {
 	 * @param camera an object representing the variables associated with the camera
 	 * @param targetPoint the point that we are converting from 3D to 2D
 	 * @return a 2-element list of integers representing the X and Y coordinates, in pixels, of the target
-	 * point on the 2D canvas
+	 * point on the 2D canvas, or null if the point is not on the canvas (including when it is behind the camera)
 	 */
 	public static int[] convert3DRealVectorTo2DRealVector (Camera camera, RealVector targetPoint) {
 		return;
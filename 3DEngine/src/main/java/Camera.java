@@ -1,14 +1,24 @@
 package main.java;
 
 public class Camera {
+	public static final double DEFAULT_DIVERGENCE_ANGLE_IN_RADIANS = Math.PI / 4;
+
 	public final AspectRatio aspectRatio;
 	public final Orientation orientation;
 	public final Coordinate camCoords;
+	// The angle between the camera's line of sight and the line from the camera to any corner of
+	// the frame, in radians. This is what `distanceFromTheCenterOfTheFrameToTheCorners` expects.
+	public final double divergenceAngle;
 	
 	public Camera (AspectRatio aspectRatio, Orientation orientation, Coordinate camCoords) {
+		this(aspectRatio, orientation, camCoords, DEFAULT_DIVERGENCE_ANGLE_IN_RADIANS);
+	}
+	
+	public Camera (AspectRatio aspectRatio, Orientation orientation, Coordinate camCoords, double divergenceAngle) {
 		this.aspectRatio = aspectRatio;
 		this.orientation = orientation;
 		this.camCoords = camCoords;
+		this.divergenceAngle = divergenceAngle;
 	}
 	
 }
@@ -0,0 +1,25 @@
+package main.java;
+
+public final class Coordinate {
+	private double x;
+	private double y;
+	private double z;
+
+	public Coordinate (double x, double y, double z) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+	}
+
+	public double getX () {
+		return this.x;
+	}
+
+	public double getY () {
+		return this.y;
+	}
+
+	public double getZ () {
+		return this.z;
+	}
+}
@@ -0,0 +1,222 @@
+/*
+ * Keeps recently rendered frames around so that a scene which is viewed from the same few viewpoints over
+ * and over again (orbit presets, replays, etc.) does not have to go through the whole pipeline from
+ * `findPointOnLineOfSight` onwards every single time.
+ *
+ * Frames are held strongly until the memory budget is used up, at which point the least recently used
+ * frames are evicted first. If the soft tier is enabled, evicted frames are not thrown away straight away;
+ * they are kept behind soft references instead, so the garbage collector can take the memory back when it
+ * needs it, but until then we can still get the frame back for free.
+ *
+ * All of the public methods are safe to call from more than one thread.
+ *
+ * @version October 19, 2026
+ */
+package main.java;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+public final class FrameCache {
+	private final long memoryBudgetInBytes;
+	private final double coordinateStep;
+	private final double angleStepInRadians;
+	private final boolean softTierEnabled;
+
+	// Access order rather than insertion order, so the first entry is always the least recently used one.
+	private final LinkedHashMap<FrameKey, BufferedImage> frames = new LinkedHashMap<>(16, 0.75f, true);
+	private final HashMap<FrameKey, SoftFrame> softFrames = new HashMap<>();
+	private final ReferenceQueue<BufferedImage> clearedSoftFrames = new ReferenceQueue<>();
+
+	private long usedBytes = 0;
+	private long hits = 0;
+	private long softHits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	/*
+	 * A soft reference that remembers its own key, so that we can remove it from `softFrames` once the
+	 * garbage collector has cleared it.
+	 */
+	private static final class SoftFrame extends SoftReference<BufferedImage> {
+		private final FrameKey key;
+
+		private SoftFrame (FrameKey key, BufferedImage frame, ReferenceQueue<BufferedImage> queue) {
+			super(frame, queue);
+			this.key = key;
+		}
+	}
+
+	/*
+	 * @param memoryBudgetInBytes the most memory that the strongly held frames may use.
+	 * @param coordinateStep cameras whose coordinates differ by less than this share a frame.
+	 * @param angleStepInRadians cameras whose orientations differ by less than this share a frame.
+	 * @param softTierEnabled whether evicted frames should be kept behind soft references.
+	 */
+	public FrameCache (long memoryBudgetInBytes, double coordinateStep, double angleStepInRadians, boolean softTierEnabled) {
+		if (memoryBudgetInBytes <= 0)
+			throw new IllegalArgumentException("The memory budget must be positive.");
+		if (coordinateStep <= 0 || angleStepInRadians <= 0)
+			throw new IllegalArgumentException("The quantization steps must be positive.");
+
+		this.memoryBudgetInBytes = memoryBudgetInBytes;
+		this.coordinateStep = coordinateStep;
+		this.angleStepInRadians = angleStepInRadians;
+		this.softTierEnabled = softTierEnabled;
+	}
+
+	/*
+	 * @param sceneVersion the current version of the scene.
+	 * @param camera the camera that we want a frame for.
+	 * @return the cached frame, or null if there isn't one.
+	 */
+	public synchronized BufferedImage get (long sceneVersion, Camera camera) {
+		purgeClearedSoftFrames();
+		FrameKey key = new FrameKey(sceneVersion, camera, coordinateStep, angleStepInRadians);
+
+		BufferedImage frame = frames.get(key);
+		if (frame != null) {
+			hits++;
+			return frame;
+		}
+
+		SoftFrame softFrame = softFrames.remove(key);
+		frame = softFrame == null ? null : softFrame.get();
+		if (frame != null) {
+			// It was used again, so it deserves to be held strongly again.
+			hits++;
+			softHits++;
+			insert(key, frame);
+			return frame;
+		}
+
+		misses++;
+		return null;
+	}
+
+	/*
+	 * Stores a frame, evicting the least recently used frames until everything fits in the budget again.
+	 * A frame that would not fit in the budget on its own is only kept in the soft tier.
+	 *
+	 * @param sceneVersion the version of the scene that the frame was rendered from.
+	 * @param camera the camera that the frame was rendered from.
+	 * @param frame the rendered frame.
+	 */
+	public synchronized void put (long sceneVersion, Camera camera, BufferedImage frame) {
+		purgeClearedSoftFrames();
+		FrameKey key = new FrameKey(sceneVersion, camera, coordinateStep, angleStepInRadians);
+		insert(key, frame);
+	}
+
+	/*
+	 * Returns the cached frame if there is one, otherwise renders it and caches the result. The lock is not
+	 * held while rendering, so two threads asking for the same missing frame at the same time may both end
+	 * up rendering it. That is wasteful, but it is never wrong, and it means a slow render doesn't block
+	 * every other thread.
+	 *
+	 * @param sceneVersion the current version of the scene.
+	 * @param camera the camera that we want a frame for.
+	 * @param renderer renders a frame from the point of view of a camera.
+	 * @return the frame for `camera`.
+	 */
+	public BufferedImage getOrRender (long sceneVersion, Camera camera, Function<Camera, BufferedImage> renderer) {
+		BufferedImage frame = get(sceneVersion, camera);
+		if (frame == null) {
+			frame = renderer.apply(camera);
+			put(sceneVersion, camera, frame);
+		}
+		return frame;
+	}
+
+	/*
+	 * Drops every frame, including the ones in the soft tier. The statistics are left alone.
+	 */
+	public synchronized void clear () {
+		frames.clear();
+		softFrames.clear();
+		usedBytes = 0;
+	}
+
+	private void insert (FrameKey key, BufferedImage frame) {
+		long frameSizeInBytes = sizeInBytes(frame);
+
+		BufferedImage previous = frames.remove(key);
+		if (previous != null)
+			usedBytes -= sizeInBytes(previous);
+		softFrames.remove(key);
+
+		if (frameSizeInBytes > memoryBudgetInBytes) {
+			if (softTierEnabled)
+				softFrames.put(key, new SoftFrame(key, frame, clearedSoftFrames));
+			return;
+		}
+
+		frames.put(key, frame);
+		usedBytes += frameSizeInBytes;
+
+		Iterator<Map.Entry<FrameKey, BufferedImage>> leastRecentlyUsed = frames.entrySet().iterator();
+		while (usedBytes > memoryBudgetInBytes && leastRecentlyUsed.hasNext()) {
+			Map.Entry<FrameKey, BufferedImage> eldest = leastRecentlyUsed.next();
+			leastRecentlyUsed.remove();
+			usedBytes -= sizeInBytes(eldest.getValue());
+			evictions++;
+			if (softTierEnabled)
+				softFrames.put(eldest.getKey(), new SoftFrame(eldest.getKey(), eldest.getValue(), clearedSoftFrames));
+		}
+	}
+
+	private void purgeClearedSoftFrames () {
+		SoftFrame cleared;
+		while ((cleared = (SoftFrame) clearedSoftFrames.poll()) != null)
+			softFrames.remove(cleared.key, cleared);
+	}
+
+	/*
+	 * @param frame a rendered frame.
+	 * @return the number of bytes that the pixels of the frame take up.
+	 */
+	private static long sizeInBytes (BufferedImage frame) {
+		DataBuffer pixels = frame.getRaster().getDataBuffer();
+		long bitsPerElement = DataBuffer.getDataTypeSize(pixels.getDataType());
+		return (long) pixels.getSize() * pixels.getNumBanks() * bitsPerElement / 8;
+	}
+
+	public synchronized long getHits () {
+		return this.hits;
+	}
+
+	public synchronized long getSoftHits () {
+		return this.softHits;
+	}
+
+	public synchronized long getMisses () {
+		return this.misses;
+	}
+
+	public synchronized long getEvictions () {
+		return this.evictions;
+	}
+
+	public synchronized long getUsedBytes () {
+		return this.usedBytes;
+	}
+
+	public long getMemoryBudgetInBytes () {
+		return this.memoryBudgetInBytes;
+	}
+
+	/*
+	 * @return the fraction of lookups that found a frame, or 0 if there haven't been any lookups yet.
+	 */
+	public synchronized double getHitRate () {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0. : (double) hits / lookups;
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Identifies a rendered frame in the `FrameCache`. Two cameras that are close enough to each other that
+ * the difference would not be visible on the canvas should produce the same key, so the coordinates,
+ * the orientation and the divergence angle are snapped to a grid before they are compared. The aspect
+ * ratio is already a whole number of pixels, so it is compared exactly.
+ *
+ * @version October 19, 2026
+ */
+package main.java;
+
+public final class FrameKey {
+	private final long sceneVersion;
+	private final long quantizedX;
+	private final long quantizedY;
+	private final long quantizedZ;
+	private final long quantizedYaw;
+	private final long quantizedPitch;
+	private final long quantizedRoll;
+	private final long quantizedDivergenceAngle;
+	private final int width;
+	private final int height;
+
+	/*
+	 * @param sceneVersion the version of the scene that the frame was rendered from. Bump this whenever the
+	 * scene changes so that stale frames are never returned.
+	 * @param camera the camera that the frame was rendered from.
+	 * @param coordinateStep the size of the grid that the camera's coordinates are snapped to.
+	 * @param angleStepInRadians the size of the grid that the camera's orientation is snapped to.
+	 */
+	public FrameKey (long sceneVersion, Camera camera, double coordinateStep, double angleStepInRadians) {
+		this.sceneVersion = sceneVersion;
+		this.quantizedX = quantize(camera.camCoords.getX(), coordinateStep);
+		this.quantizedY = quantize(camera.camCoords.getY(), coordinateStep);
+		this.quantizedZ = quantize(camera.camCoords.getZ(), coordinateStep);
+		this.quantizedYaw = quantizeAngle(camera.orientation.getYaw(), angleStepInRadians);
+		this.quantizedPitch = quantizeAngle(camera.orientation.getPitch(), angleStepInRadians);
+		this.quantizedRoll = quantizeAngle(camera.orientation.getRoll(), angleStepInRadians);
+		this.quantizedDivergenceAngle = quantize(camera.divergenceAngle, angleStepInRadians);
+		this.width = camera.aspectRatio.getWidth();
+		this.height = camera.aspectRatio.getHeight();
+	}
+
+	/*
+	 * @param value the value to snap to the grid.
+	 * @param step the size of the grid.
+	 * @return the index of the grid cell that is closest to `value`.
+	 */
+	private static long quantize (double value, double step) {
+		return Math.round(value / step);
+	}
+
+	/*
+	 * Angles that differ by a full rotation describe the same orientation, so they should share a key.
+	 * The wrapping has to happen after snapping rather than before, otherwise an angle just under 2pi
+	 * would snap to the last grid cell while 0 snaps to the first, even though they are right next to
+	 * each other.
+	 *
+	 * @param angleInRadians any angle.
+	 * @param stepInRadians the size of the grid.
+	 * @return the index of the grid cell that is closest to `angleInRadians`, wrapped around so that
+	 * it is in the range [0, number of cells in a full rotation).
+	 */
+	private static long quantizeAngle (double angleInRadians, double stepInRadians) {
+		double fullRotation = 2 * Math.PI;
+		long cellsInAFullRotation = Math.max(Math.round(fullRotation / stepInRadians), 1);
+		// Taking the remainder first keeps very large angles from losing precision in the division.
+		long index = quantize(angleInRadians % fullRotation, stepInRadians);
+		return Math.floorMod(index, cellsInAFullRotation);
+	}
+
+	@Override
+	public boolean equals (Object other) {
+		if (this == other)
+			return true;
+		if (!(other instanceof FrameKey))
+			return false;
+		FrameKey that = (FrameKey) other;
+		return this.sceneVersion == that.sceneVersion
+				&& this.quantizedX == that.quantizedX
+				&& this.quantizedY == that.quantizedY
+				&& this.quantizedZ == that.quantizedZ
+				&& this.quantizedYaw == that.quantizedYaw
+				&& this.quantizedPitch == that.quantizedPitch
+				&& this.quantizedRoll == that.quantizedRoll
+				&& this.quantizedDivergenceAngle == that.quantizedDivergenceAngle
+				&& this.width == that.width
+				&& this.height == that.height;
+	}
+
+	@Override
+	public int hashCode () {
+		long hash = sceneVersion;
+		hash = hash * 31 + quantizedX;
+		hash = hash * 31 + quantizedY;
+		hash = hash * 31 + quantizedZ;
+		hash = hash * 31 + quantizedYaw;
+		hash = hash * 31 + quantizedPitch;
+		hash = hash * 31 + quantizedRoll;
+		hash = hash * 31 + quantizedDivergenceAngle;
+		hash = hash * 31 + width;
+		hash = hash * 31 + height;
+		return Long.hashCode(hash);
+	}
+}
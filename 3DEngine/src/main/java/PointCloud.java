@@ -0,0 +1,168 @@
+/*
+ * The points in a scene, along with their colors, sizes and intensities. Everything is stored in flat
+ * primitive arrays (the i-th point's coordinates are at 3i, 3i + 1 and 3i + 2, and its attributes are at
+ * i), so a scene with millions of points doesn't turn into millions of `RealVector` and `Color` objects.
+ *
+ * @version October 19, 2026
+ */
+package main.java;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+
+public final class PointCloud {
+	// Intensities are unsigned, so this is 65535 rather than -1.
+	public static final short FULL_INTENSITY = (short) 0xFFFF;
+
+	private double[] coordinates;
+	private int[] colors;
+	private float[] sizes;
+	private short[] intensities;
+	private int size = 0;
+	private long version = 0;
+
+	public PointCloud (int initialCapacity) {
+		int capacity = Math.max(initialCapacity, 1);
+		this.coordinates = new double[capacity * 3];
+		this.colors = new int[capacity];
+		this.sizes = new float[capacity];
+		this.intensities = new short[capacity];
+	}
+
+	/*
+	 * @param x the x coordinate of the point.
+	 * @param y the y coordinate of the point.
+	 * @param z the z coordinate of the point.
+	 * @param argb the color of the point, packed as 0xAARRGGBB.
+	 * @param radiusAsFractionOfWidth the radius of the point on the canvas, as a fraction of the width of the
+	 * canvas, so that points keep the same size relative to the canvas when the window is resized.
+	 * @param intensity how brightly the point is drawn, as an unsigned 16-bit value.
+	 * @return the index of the new point.
+	 */
+	public int add (double x, double y, double z, int argb, float radiusAsFractionOfWidth, short intensity) {
+		if (size == colors.length)
+			grow();
+
+		coordinates[size * 3] = x;
+		coordinates[size * 3 + 1] = y;
+		coordinates[size * 3 + 2] = z;
+		colors[size] = argb;
+		sizes[size] = radiusAsFractionOfWidth;
+		intensities[size] = intensity;
+		version++;
+		return size++;
+	}
+
+	// Every change to a point goes through one of these, so that the version always changes with it.
+
+	public void setPosition (int index, double x, double y, double z) {
+		Objects.checkIndex(index, size);
+		coordinates[index * 3] = x;
+		coordinates[index * 3 + 1] = y;
+		coordinates[index * 3 + 2] = z;
+		version++;
+	}
+
+	public void setColor (int index, int argb) {
+		Objects.checkIndex(index, size);
+		colors[index] = argb;
+		version++;
+	}
+
+	public void setSize (int index, float radiusAsFractionOfWidth) {
+		Objects.checkIndex(index, size);
+		sizes[index] = radiusAsFractionOfWidth;
+		version++;
+	}
+
+	public void setIntensity (int index, short intensity) {
+		Objects.checkIndex(index, size);
+		intensities[index] = intensity;
+		version++;
+	}
+
+	public void clear () {
+		size = 0;
+		version++;
+	}
+
+	private void grow () {
+		int capacity = colors.length * 2;
+		coordinates = Arrays.copyOf(coordinates, capacity * 3);
+		colors = Arrays.copyOf(colors, capacity);
+		sizes = Arrays.copyOf(sizes, capacity);
+		intensities = Arrays.copyOf(intensities, capacity);
+	}
+
+	/*
+	 * Projects every point onto the canvas and throws away the ones that wouldn't show up, either because
+	 * they are off the canvas or because they are invisible anyway (fully transparent, no size or no
+	 * intensity). Invisible points are skipped before they are projected, since that is the expensive part.
+	 *
+	 * @param engine the engine used to project the points. The vector that it is given is reused for every
+	 * point, so it must not hold on to it.
+	 * @param camera the camera to project the points for.
+	 * @return the points that survived, in the same order as they were added.
+	 */
+	public ProjectedPoints project (ProjectionEngine engine, Camera camera) {
+		int[] pixelX = new int[size];
+		int[] pixelY = new int[size];
+		int[] sourceIndices = new int[size];
+		int count = 0;
+
+		ArrayRealVector targetPoint = new ArrayRealVector(3);
+		for (int index = 0; index < size; index++) {
+			if ((colors[index] >>> 24) == 0 || sizes[index] <= 0 || intensities[index] == 0)
+				continue;
+
+			targetPoint.setEntry(0, coordinates[index * 3]);
+			targetPoint.setEntry(1, coordinates[index * 3 + 1]);
+			targetPoint.setEntry(2, coordinates[index * 3 + 2]);
+			int[] pixel = engine.project(camera, targetPoint);
+			if (pixel == null)
+				continue;
+
+			pixelX[count] = pixel[0];
+			pixelY[count] = pixel[1];
+			sourceIndices[count] = index;
+			count++;
+		}
+		return new ProjectedPoints(count, pixelX, pixelY, sourceIndices);
+	}
+
+	public int size () {
+		return this.size;
+	}
+
+	/*
+	 * @return a number that changes every time the points change, for use as the scene version in the
+	 * `FrameCache`.
+	 */
+	public long getVersion () {
+		return this.version;
+	}
+
+	// The getters below return the backing arrays rather than copies, so that the rasterizer can read
+	// them without copying millions of values every frame. They are READ-ONLY: writing to them doesn't
+	// change the version, so the frame cache would keep serving frames of the old points. Use the setters
+	// above instead. Only the first `size()` points (or `3 * size()` coordinates) are meaningful, and the
+	// arrays are replaced whenever the cloud grows, so don't hold on to them either.
+
+	public double[] getCoordinates () {
+		return this.coordinates;
+	}
+
+	public int[] getColors () {
+		return this.colors;
+	}
+
+	public float[] getSizes () {
+		return this.sizes;
+	}
+
+	public short[] getIntensities () {
+		return this.intensities;
+	}
+}
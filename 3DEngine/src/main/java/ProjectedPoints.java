@@ -0,0 +1,22 @@
+/*
+ * The points of a `PointCloud` that made it onto the canvas. Like the cloud itself, this is stored as
+ * flat arrays: the i-th surviving point is at (pixelX[i], pixelY[i]) and its attributes are at
+ * sourceIndices[i] in the cloud. Only the first `count` entries are meaningful.
+ *
+ * @version October 19, 2026
+ */
+package main.java;
+
+public final class ProjectedPoints {
+	public final int count;
+	public final int[] pixelX;
+	public final int[] pixelY;
+	public final int[] sourceIndices;
+
+	public ProjectedPoints (int count, int[] pixelX, int[] pixelY, int[] sourceIndices) {
+		this.count = count;
+		this.pixelX = pixelX;
+		this.pixelY = pixelY;
+		this.sourceIndices = sourceIndices;
+	}
+}
@@ -0,0 +1,22 @@
+/*
+ * Anything that can convert a point in 3D space into a pixel on the 2D canvas. `Calculations` is the
+ * original implementation; any faster path that we add should implement this as well so that the
+ * differential tests can check it against the reference.
+ *
+ * @version October 19, 2026
+ */
+package main.java;
+
+import org.apache.commons.math3.linear.RealVector;
+
+@FunctionalInterface
+public interface ProjectionEngine {
+
+	/*
+	 * @param camera an object representing the variables associated with the camera
+	 * @param targetPoint the point that we are converting from 3D to 2D
+	 * @return a 2-element list of integers representing the X and Y coordinates, in pixels, of the target
+	 * point on the 2D canvas, with (0, 0) in the top left corner, or null if the point is not on the canvas
+	 */
+	int[] project (Camera camera, RealVector targetPoint);
+}
@@ -0,0 +1,104 @@
+/*
+ * Draws projected points straight into the pixels of a frame. Going through `Graphics` would mean creating
+ * a `Color` for every point, so instead the colors are unpacked, scaled by the intensity and blended by
+ * hand.
+ *
+ * @version October 19, 2026
+ */
+package main.java;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+public final class Rasterizer {
+
+	/*
+	 * Draws every projected point as a filled circle, in the order that the points were added to the
+	 * cloud, so later points are drawn over earlier ones.
+	 *
+	 * @param cloud the cloud that the points were projected from.
+	 * @param projected the points of `cloud` that are on the canvas.
+	 * @param frame the frame to draw into. It must be TYPE_INT_RGB or TYPE_INT_ARGB. It may be a sub-image
+	 * of a bigger frame.
+	 */
+	public static void rasterize (PointCloud cloud, ProjectedPoints projected, BufferedImage frame) {
+		int frameType = frame.getType();
+		if (frameType != BufferedImage.TYPE_INT_RGB && frameType != BufferedImage.TYPE_INT_ARGB)
+			throw new IllegalArgumentException("The frame must store its pixels as packed ints.");
+
+		int width = frame.getWidth();
+		int height = frame.getHeight();
+		WritableRaster raster = frame.getRaster();
+		DataBufferInt dataBuffer = (DataBufferInt) raster.getDataBuffer();
+		int[] pixels = dataBuffer.getData();
+
+		// A sub-image shares the pixels of the image that it came from, so its rows can be longer than its
+		// width, and its top left pixel needn't be the first one in the array.
+		int scanlineStride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+		int origin = dataBuffer.getOffset()
+				- raster.getSampleModelTranslateY() * scanlineStride
+				- raster.getSampleModelTranslateX();
+
+		int[] colors = cloud.getColors();
+		float[] sizes = cloud.getSizes();
+		short[] intensities = cloud.getIntensities();
+
+		for (int i = 0; i < projected.count; i++) {
+			int index = projected.sourceIndices[i];
+			int color = shade(colors[index], intensities[index]);
+			// Sizes are stored as a fraction of the width, so that points scale with the canvas.
+			float radius = sizes[index] * width;
+			int reach = (int) Math.ceil(radius);
+			float radiusSquared = radius * radius;
+
+			int centerX = projected.pixelX[i];
+			int centerY = projected.pixelY[i];
+			int minY = Math.max(centerY - reach, 0);
+			int maxY = Math.min(centerY + reach, height - 1);
+			int minX = Math.max(centerX - reach, 0);
+			int maxX = Math.min(centerX + reach, width - 1);
+
+			for (int y = minY; y <= maxY; y++) {
+				int deltaY = y - centerY;
+				int row = origin + y * scanlineStride;
+				for (int x = minX; x <= maxX; x++) {
+					int deltaX = x - centerX;
+					if (deltaX * deltaX + deltaY * deltaY <= radiusSquared)
+						pixels[row + x] = blend(color, pixels[row + x]);
+				}
+			}
+		}
+	}
+
+	/*
+	 * @param argb a color packed as 0xAARRGGBB.
+	 * @param intensity an unsigned 16-bit value, where `PointCloud.FULL_INTENSITY` leaves the color as it is.
+	 * @return the color with its red, green and blue scaled by the intensity. The alpha is left alone.
+	 */
+	private static int shade (int argb, short intensity) {
+		int scale = Short.toUnsignedInt(intensity);
+		int red = ((argb >>> 16) & 0xFF) * scale / 0xFFFF;
+		int green = ((argb >>> 8) & 0xFF) * scale / 0xFFFF;
+		int blue = (argb & 0xFF) * scale / 0xFFFF;
+		return (argb & 0xFF000000) | (red << 16) | (green << 8) | blue;
+	}
+
+	/*
+	 * @param source the color being drawn, packed as 0xAARRGGBB.
+	 * @param destination the color that is already there.
+	 * @return `source` drawn over `destination`. The result is always opaque.
+	 */
+	private static int blend (int source, int destination) {
+		int alpha = source >>> 24;
+		if (alpha == 0xFF)
+			return source;
+
+		int inverseAlpha = 0xFF - alpha;
+		int red = (((source >>> 16) & 0xFF) * alpha + ((destination >>> 16) & 0xFF) * inverseAlpha) / 0xFF;
+		int green = (((source >>> 8) & 0xFF) * alpha + ((destination >>> 8) & 0xFF) * inverseAlpha) / 0xFF;
+		int blue = ((source & 0xFF) * alpha + (destination & 0xFF) * inverseAlpha) / 0xFF;
+		return 0xFF000000 | (red << 16) | (green << 8) | blue;
+	}
+}
@@ -7,28 +7,55 @@ import java.util.Random;
 
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.TestInfo;
 
 import main.java.Calculations;
 import main.java.Orientation;
 
 class CalculationsTest {
 	
+	private static final long BASE_SEED = 20220919L;
+	
+	private long seed;
+	private Random random;
+	
 	
 	// HELPERS
 	
+	/*
+	 * Every test (and every repetition of a repeated test, which has its own display name) gets its
+	 * own seed, but the seeds are the same on every run, so any failure can be reproduced by running
+	 * the same test again. Only `TestInfo` is used so that plain `@Test`s work here as well.
+	 */
+	@BeforeEach
+	void seedRandom (TestInfo testInfo) {
+		String testName = testInfo.getTestMethod().get().getName();
+		seed = BASE_SEED * 31 + testName.hashCode() * 1009L + testInfo.getDisplayName().hashCode();
+		random = new Random(seed);
+	}
+	
+	private String failureMessage () {
+		return "seed " + seed;
+	}
+	
+	private boolean coordinatesAreEqualWithinTolerance (RealVector first, RealVector second) {
+		double tolerance = 0.01;
+		return first.getDistance(second) < tolerance;
+	}
+	
 	private double generateRandomAngle () {
 		double radiansInACircle = 2 * Math.PI;
-		return Math.random() * radiansInACircle;
+		return random.nextDouble() * radiansInACircle;
 	}
 	
 	private RealVector generateRandomCoordinate () {
 		double rangeMin = -10.;
 		double rangeMax = 10.;
-		Random r = new Random();
-		double x = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
-		double y = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
-		double z = rangeMin + (rangeMax - rangeMin) * r.nextDouble();
+		double x = rangeMin + (rangeMax - rangeMin) * random.nextDouble();
+		double y = rangeMin + (rangeMax - rangeMin) * random.nextDouble();
+		double z = rangeMin + (rangeMax - rangeMin) * random.nextDouble();
 
 		double[] randomCoordinateRealVectorData = {x, y, z};
 		RealVector randomCoordinate =  new ArrayRealVector (randomCoordinateRealVectorData, false);
@@ -40,7 +67,7 @@ class CalculationsTest {
 		double yaw = generateRandomAngle();
 		double roll = generateRandomAngle();
 
-		return new Orientation (pitch, yaw, roll);
+		return new Orientation (yaw, pitch, roll);
 	}
 	
 	
@@ -56,7 +83,7 @@ class CalculationsTest {
 		double[] shouldBeEqualToCameraCoordsVectorData = {point.getEntry(0), point.getEntry(1), point.getEntry(2) - 1};
 		RealVector shouldBeEqualToCameraCoords = new ArrayRealVector (shouldBeEqualToCameraCoordsVectorData, false);
 
-		assertTrue(coordinatesAreEqualWithinTolerance(cameraCoords, shouldBeEqualToCameraCoords));
+		assertTrue(failureMessage(), coordinatesAreEqualWithinTolerance(cameraCoords, shouldBeEqualToCameraCoords));
 	}
 	
 	@RepeatedTest(100)
@@ -66,9 +93,9 @@ class CalculationsTest {
 		RealVector point = Calculations.findPointOnLineOfSight(cameraCoords, orientation);
 
 		RealVector difference = cameraCoords.subtract(point);
-		double norm = difference.getL1Norm();
+		double norm = difference.getNorm();
 
-		assertEquals(norm, 1.0, 0.05);
+		assertEquals(failureMessage(), 1.0, norm, 0.05);
 	}
 
 	@RepeatedTest(100)
@@ -78,14 +105,14 @@ class CalculationsTest {
 		double rollOne = generateRandomAngle();
 		double rollTwo = generateRandomAngle();
 		
-		Orientation orientationOne = new Orientation(pitch, yaw, rollOne);
-		Orientation orientationTwo = new Orientation(pitch, yaw, rollTwo);
+		Orientation orientationOne = new Orientation(yaw, pitch, rollOne);
+		Orientation orientationTwo = new Orientation(yaw, pitch, rollTwo);
 		
 		RealVector cameraCoords = generateRandomCoordinate();
 		RealVector pointOne = Calculations.findPointOnLineOfSight(cameraCoords, orientationOne);
 		RealVector pointTwo = Calculations.findPointOnLineOfSight(cameraCoords, orientationTwo);
 		
-		assertTrue(coordinatesAreEqualWithinTolerance(pointOne, pointTwo));
+		assertTrue(failureMessage(), coordinatesAreEqualWithinTolerance(pointOne, pointTwo));
 	}
 	
 	@RepeatedTest(100)
@@ -97,18 +124,19 @@ class CalculationsTest {
 		double yaw = generateRandomAngle();
 		double roll = generateRandomAngle();
 
-		Orientation orientationOne = new Orientation(pitchOne, yaw, roll);
-		Orientation orientationTwo = new Orientation(pitchTwo, yaw, roll);
-		Orientation orientationThree = new Orientation(pitchThree, yaw, roll);
+		Orientation orientationOne = new Orientation(yaw, pitchOne, roll);
+		Orientation orientationTwo = new Orientation(yaw, pitchTwo, roll);
+		Orientation orientationThree = new Orientation(yaw, pitchThree, roll);
 		
 		RealVector cameraCoords = generateRandomCoordinate();
 		
-		RealVector pointOne = Calculations.findPointOnLineOfSight(cameraCoords, orientationOne);
-		RealVector pointTwo = Calculations.findPointOnLineOfSight(cameraCoords, orientationTwo);
-		RealVector pointThree = Calculations.findPointOnLineOfSight(cameraCoords, orientationThree);
+		// The points are relative to the camera, so it's the directions that should be perpendicular.
+		RealVector directionOne = Calculations.findPointOnLineOfSight(cameraCoords, orientationOne).subtract(cameraCoords);
+		RealVector directionTwo = Calculations.findPointOnLineOfSight(cameraCoords, orientationTwo).subtract(cameraCoords);
+		RealVector directionThree = Calculations.findPointOnLineOfSight(cameraCoords, orientationThree).subtract(cameraCoords);
 		
-		assertEquals(pointOne.dotProduct(pointTwo), 0., 0.01);
-		assertEquals(pointOne.dotProduct(pointThree), 0., 0.01);
+		assertEquals(failureMessage(), 0., directionOne.dotProduct(directionTwo), 0.01);
+		assertEquals(failureMessage(), 0., directionOne.dotProduct(directionThree), 0.01);
 	}
 	
 	
@@ -119,14 +147,17 @@ class CalculationsTest {
 		pitch = yaw = fortyFiveDegreeAngleInRadians;
 
 		
-		Orientation orientation = new Orientation(pitch, yaw, 0.);
+		Orientation orientation = new Orientation(yaw, pitch, 0.);
 		RealVector cameraCoords = generateRandomCoordinate();
 		RealVector point = Calculations.findPointOnLineOfSight(cameraCoords, orientation);
-		RealVector fortyFiveDegreeUnitVector = new ArrayRealVector (3, Math.sqrt(1.0 / 3.0));
+		// yawRotationMatrix * pitchRotationMatrix * (0, 0, 1) = (-sin(yaw)cos(pitch), -sin(pitch), cos(yaw)cos(pitch)),
+		// which is (-1/2, -sqrt(1/2), 1/2) when both angles are 45 degrees.
+		double[] fortyFiveDegreeUnitVectorData = {-0.5, -Math.sqrt(0.5), 0.5};
+		RealVector fortyFiveDegreeUnitVector = new ArrayRealVector (fortyFiveDegreeUnitVectorData, false);
 		
 		RealVector difference = point.subtract(cameraCoords);
 		
-		assertTrue(coordinatesAreEqualWithinTolerance(difference, fortyFiveDegreeUnitVector));
+		assertTrue(failureMessage(), coordinatesAreEqualWithinTolerance(difference, fortyFiveDegreeUnitVector));
 	}
 	
 	// 
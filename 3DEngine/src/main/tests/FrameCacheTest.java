@@ -0,0 +1,235 @@
+package main.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import main.java.AspectRatio;
+import main.java.Camera;
+import main.java.Coordinate;
+import main.java.FrameCache;
+import main.java.Orientation;
+
+class FrameCacheTest {
+
+	// A 10x10 TYPE_INT_RGB frame takes up 4 bytes per pixel.
+	private static final long FRAME_SIZE_IN_BYTES = 10 * 10 * 4;
+	private static final double COORDINATE_STEP = 1e-3;
+	private static final double ANGLE_STEP = 1e-4;
+
+
+	// HELPERS
+
+	private FrameCache cacheThatHolds (int frames, boolean softTierEnabled) {
+		return new FrameCache(FRAME_SIZE_IN_BYTES * frames, COORDINATE_STEP, ANGLE_STEP, softTierEnabled);
+	}
+
+	// Cameras that are one unit apart along the X axis, so that each one gets its own key.
+	private Camera camera (int position) {
+		return new Camera(new AspectRatio(10, 10), new Orientation(0., 0., 0.), new Coordinate(position, 0., 0.));
+	}
+
+	private BufferedImage frame (int width, int height) {
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+	}
+
+
+	// EVICTION
+
+	@Test
+	void evictsTheLeastRecentlyUsedFrameFirst () {
+		FrameCache cache = cacheThatHolds(3, false);
+		BufferedImage first = frame(10, 10);
+		BufferedImage second = frame(10, 10);
+		BufferedImage third = frame(10, 10);
+		cache.put(0, camera(1), first);
+		cache.put(0, camera(2), second);
+		cache.put(0, camera(3), third);
+
+		// Using the first frame makes the second one the least recently used.
+		assertSame(first, cache.get(0, camera(1)));
+		BufferedImage fourth = frame(10, 10);
+		cache.put(0, camera(4), fourth);
+
+		assertNull(cache.get(0, camera(2)));
+		assertSame(first, cache.get(0, camera(1)));
+		assertSame(third, cache.get(0, camera(3)));
+		assertSame(fourth, cache.get(0, camera(4)));
+		assertEquals(1, cache.getEvictions());
+	}
+
+	@Test
+	void usedBytesAreCorrectAfterEviction () {
+		FrameCache cache = cacheThatHolds(3, false);
+		for (int position = 0; position < 5; position++)
+			cache.put(0, camera(position), frame(10, 10));
+
+		assertEquals(FRAME_SIZE_IN_BYTES * 3, cache.getUsedBytes());
+		assertEquals(2, cache.getEvictions());
+	}
+
+	@Test
+	void usedBytesAreCorrectAfterReplacingAFrame () {
+		FrameCache cache = cacheThatHolds(3, false);
+		cache.put(0, camera(1), frame(10, 10));
+		BufferedImage replacement = frame(20, 10);
+		cache.put(0, camera(1), replacement);
+
+		assertEquals(FRAME_SIZE_IN_BYTES * 2, cache.getUsedBytes());
+		assertSame(replacement, cache.get(0, camera(1)));
+		assertEquals(0, cache.getEvictions());
+	}
+
+	@Test
+	void clearDropsEveryFrame () {
+		FrameCache cache = cacheThatHolds(1, true);
+		BufferedImage first = frame(10, 10);
+		cache.put(0, camera(1), first);
+		cache.put(0, camera(2), frame(10, 10));
+		cache.clear();
+
+		assertEquals(0, cache.getUsedBytes());
+		assertNull(cache.get(0, camera(1)));
+		assertNull(cache.get(0, camera(2)));
+	}
+
+
+	// THE SOFT TIER
+
+	@Test
+	void evictedFramesAreGoneWithoutTheSoftTier () {
+		FrameCache cache = cacheThatHolds(1, false);
+		BufferedImage first = frame(10, 10);
+		cache.put(0, camera(1), first);
+		cache.put(0, camera(2), frame(10, 10));
+
+		assertNull(cache.get(0, camera(1)));
+	}
+
+	@Test
+	void softHitPromotesTheFrameBackToTheStrongTier () {
+		FrameCache cache = cacheThatHolds(1, true);
+		// Holding on to the frames here keeps the garbage collector from clearing the soft references.
+		BufferedImage first = frame(10, 10);
+		BufferedImage second = frame(10, 10);
+		cache.put(0, camera(1), first);
+		cache.put(0, camera(2), second);
+		assertEquals(1, cache.getEvictions());
+
+		assertSame(first, cache.get(0, camera(1)));
+		assertEquals(1, cache.getSoftHits());
+		assertEquals(1, cache.getHits());
+		assertEquals(FRAME_SIZE_IN_BYTES, cache.getUsedBytes());
+
+		// Promoting the first frame pushed the second one out to the soft tier in turn.
+		assertEquals(2, cache.getEvictions());
+		assertSame(second, cache.get(0, camera(2)));
+		assertEquals(2, cache.getSoftHits());
+	}
+
+	@Test
+	void oversizedFrameIsNotCachedWithoutTheSoftTier () {
+		FrameCache cache = cacheThatHolds(1, false);
+		cache.put(0, camera(1), frame(20, 20));
+
+		assertEquals(0, cache.getUsedBytes());
+		assertNull(cache.get(0, camera(1)));
+	}
+
+	@Test
+	void oversizedFrameOnlyGoesToTheSoftTier () {
+		FrameCache cache = cacheThatHolds(1, true);
+		BufferedImage small = frame(10, 10);
+		BufferedImage oversized = frame(20, 20);
+		cache.put(0, camera(1), small);
+		cache.put(0, camera(2), oversized);
+
+		// The oversized frame must not push anything out of the strong tier.
+		assertEquals(FRAME_SIZE_IN_BYTES, cache.getUsedBytes());
+		assertEquals(0, cache.getEvictions());
+		assertSame(oversized, cache.get(0, camera(2)));
+		assertEquals(1, cache.getSoftHits());
+		assertEquals(FRAME_SIZE_IN_BYTES, cache.getUsedBytes());
+		assertSame(small, cache.get(0, camera(1)));
+	}
+
+
+	// KEYS AND STATISTICS
+
+	@Test
+	void nearbyCamerasShareAFrame () {
+		FrameCache cache = cacheThatHolds(1, false);
+		BufferedImage frame = frame(10, 10);
+		cache.put(0, camera(1), frame);
+		Camera nearby = new Camera(new AspectRatio(10, 10), new Orientation(2 * Math.PI - 1e-6, ANGLE_STEP / 10, 0.),
+				new Coordinate(1. + COORDINATE_STEP / 10, 0., 0.));
+
+		assertSame(frame, cache.get(0, nearby));
+	}
+
+	@Test
+	void newSceneVersionMisses () {
+		FrameCache cache = cacheThatHolds(1, false);
+		cache.put(0, camera(1), frame(10, 10));
+
+		assertNull(cache.get(1, camera(1)));
+	}
+
+	@Test
+	void countsHitsAndMisses () {
+		FrameCache cache = cacheThatHolds(2, false);
+		int[] renders = {0};
+		for (int i = 0; i < 3; i++)
+			cache.getOrRender(0, camera(1), camera -> {
+				renders[0]++;
+				return frame(10, 10);
+			});
+
+		assertEquals(1, renders[0]);
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(2. / 3., cache.getHitRate(), 1e-9);
+	}
+
+
+	// CONCURRENCY
+
+	@Test
+	void staysConsistentUnderConcurrentUse () throws Exception {
+		FrameCache cache = cacheThatHolds(4, true);
+		int threads = 8;
+		int lookupsPerThread = 5000;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> results = new ArrayList<>();
+		for (int thread = 0; thread < threads; thread++) {
+			long seed = thread;
+			results.add(executor.submit(() -> {
+				Random random = new Random(seed);
+				for (int i = 0; i < lookupsPerThread; i++) {
+					Camera camera = camera(random.nextInt(10));
+					BufferedImage frame = cache.getOrRender(0, camera, ignored -> frame(10, 10));
+					assertEquals(10, frame.getWidth());
+				}
+			}));
+		}
+		for (Future<?> result : results)
+			result.get();
+		executor.shutdown();
+
+		assertEquals((long) threads * lookupsPerThread, cache.getHits() + cache.getMisses());
+		assertTrue(cache.getUsedBytes() <= cache.getMemoryBudgetInBytes());
+		assertEquals(0, cache.getUsedBytes() % FRAME_SIZE_IN_BYTES);
+	}
+}
@@ -0,0 +1,84 @@
+package main.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+import main.java.AspectRatio;
+import main.java.Camera;
+import main.java.Coordinate;
+import main.java.FrameKey;
+import main.java.Orientation;
+
+class FrameKeyTest {
+
+	private static final double COORDINATE_STEP = 1e-3;
+	private static final double ANGLE_STEP = 1e-4;
+
+
+	// HELPERS
+
+	private Camera camera (double x, double yaw, double pitch, double roll) {
+		return new Camera(new AspectRatio(640, 480), new Orientation(yaw, pitch, roll), new Coordinate(x, 0., 0.));
+	}
+
+	private FrameKey key (long sceneVersion, Camera camera) {
+		return new FrameKey(sceneVersion, camera, COORDINATE_STEP, ANGLE_STEP);
+	}
+
+	private void assertSameKey (Camera first, Camera second) {
+		FrameKey firstKey = key(0, first);
+		FrameKey secondKey = key(0, second);
+		assertEquals(firstKey, secondKey);
+		assertEquals(firstKey.hashCode(), secondKey.hashCode());
+	}
+
+
+	// QUANTIZATION
+
+	@Test
+	void camerasWithinOneStepShareAKey () {
+		assertSameKey(camera(1., 0.5, 0.25, 0.125), camera(1. + COORDINATE_STEP / 10, 0.5 + ANGLE_STEP / 10, 0.25, 0.125));
+	}
+
+	@Test
+	void camerasSeveralStepsApartDoNotShareAKey () {
+		assertNotEquals(key(0, camera(1., 0., 0., 0.)), key(0, camera(1. + COORDINATE_STEP * 3, 0., 0., 0.)));
+		assertNotEquals(key(0, camera(1., 0., 0., 0.)), key(0, camera(1., ANGLE_STEP * 3, 0., 0.)));
+	}
+
+	@Test
+	void angleJustUnderAFullRotationSharesAKeyWithZero () {
+		double justUnderAFullRotation = 2 * Math.PI - 1e-6;
+		assertSameKey(camera(0., justUnderAFullRotation, 0., 0.), camera(0., 0., 0., 0.));
+		assertSameKey(camera(0., 0., justUnderAFullRotation, 0.), camera(0., 0., 0., 0.));
+		assertSameKey(camera(0., 0., 0., justUnderAFullRotation), camera(0., 0., 0., 0.));
+	}
+
+	@Test
+	void angleJustUnderZeroSharesAKeyWithZero () {
+		assertSameKey(camera(0., -1e-6, 0., 0.), camera(0., 0., 0., 0.));
+	}
+
+	@Test
+	void anglesAFullRotationApartShareAKey () {
+		assertSameKey(camera(0., 1., 0., 0.), camera(0., 1. + 2 * Math.PI, 0., 0.));
+		assertSameKey(camera(0., 1., 0., 0.), camera(0., 1. - 4 * Math.PI, 0., 0.));
+	}
+
+	@Test
+	void differentSceneVersionsDoNotShareAKey () {
+		Camera camera = camera(0., 0., 0., 0.);
+		assertNotEquals(key(0, camera), key(1, camera));
+	}
+
+	@Test
+	void differentAspectRatiosDoNotShareAKey () {
+		Orientation orientation = new Orientation(0., 0., 0.);
+		Coordinate camCoords = new Coordinate(0., 0., 0.);
+		Camera wide = new Camera(new AspectRatio(640, 480), orientation, camCoords);
+		Camera narrow = new Camera(new AspectRatio(480, 640), orientation, camCoords);
+		assertNotEquals(key(0, wide), key(0, narrow));
+	}
+}
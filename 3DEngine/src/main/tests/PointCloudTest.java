@@ -0,0 +1,176 @@
+package main.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.jupiter.api.Test;
+
+import main.java.AspectRatio;
+import main.java.Camera;
+import main.java.Coordinate;
+import main.java.Orientation;
+import main.java.PointCloud;
+import main.java.ProjectedPoints;
+import main.java.ProjectionEngine;
+
+class PointCloudTest {
+
+	private static final int OPAQUE_BLACK = 0xFF000000;
+	private static final float SIZE = 0.05f;
+
+	private static final Camera CAMERA = new Camera(new AspectRatio(20, 10), new Orientation(0., 0., 0.), new Coordinate(0., 0., 0.));
+
+
+	// HELPERS
+
+	/*
+	 * A projection engine that puts (x, y, z) on pixel (x, y) and treats anything with a negative z as
+	 * being off the canvas. It remembers every point that it was asked about.
+	 */
+	private static final class StubEngine implements ProjectionEngine {
+		private final List<double[]> projectedPoints = new ArrayList<>();
+
+		@Override
+		public int[] project (Camera camera, RealVector targetPoint) {
+			projectedPoints.add(targetPoint.toArray());
+			if (targetPoint.getEntry(2) < 0)
+				return null;
+			return new int[] {(int) targetPoint.getEntry(0), (int) targetPoint.getEntry(1)};
+		}
+	}
+
+	private int[] firstEntries (int[] array, int count) {
+		return Arrays.copyOf(array, count);
+	}
+
+
+	// PROJECTION AND CULLING
+
+	@Test
+	void project_keepsTheOrderThatPointsWereAddedIn () {
+		PointCloud cloud = new PointCloud(1);
+		cloud.add(5., 1., 0., OPAQUE_BLACK, SIZE, PointCloud.FULL_INTENSITY);
+		cloud.add(3., 2., 0., OPAQUE_BLACK, SIZE, PointCloud.FULL_INTENSITY);
+		cloud.add(9., 3., 0., OPAQUE_BLACK, SIZE, PointCloud.FULL_INTENSITY);
+
+		ProjectedPoints projected = cloud.project(new StubEngine(), CAMERA);
+
+		assertEquals(3, projected.count);
+		assertArrayEquals(new int[] {0, 1, 2}, firstEntries(projected.sourceIndices, projected.count));
+		assertArrayEquals(new int[] {5, 3, 9}, firstEntries(projected.pixelX, projected.count));
+		assertArrayEquals(new int[] {1, 2, 3}, firstEntries(projected.pixelY, projected.count));
+	}
+
+	@Test
+	void project_cullsPointsThatAreOffTheCanvas () {
+		PointCloud cloud = new PointCloud(4);
+		cloud.add(1., 1., 0., OPAQUE_BLACK, SIZE, PointCloud.FULL_INTENSITY);
+		cloud.add(2., 2., -1., OPAQUE_BLACK, SIZE, PointCloud.FULL_INTENSITY);
+		cloud.add(3., 3., 0., OPAQUE_BLACK, SIZE, PointCloud.FULL_INTENSITY);
+
+		ProjectedPoints projected = cloud.project(new StubEngine(), CAMERA);
+
+		assertEquals(2, projected.count);
+		assertArrayEquals(new int[] {0, 2}, firstEntries(projected.sourceIndices, projected.count));
+	}
+
+	@Test
+	void project_cullsInvisiblePointsWithoutProjectingThem () {
+		PointCloud cloud = new PointCloud(4);
+		cloud.add(1., 0., 0., 0x00FFFFFF, SIZE, PointCloud.FULL_INTENSITY);
+		cloud.add(2., 0., 0., OPAQUE_BLACK, 0f, PointCloud.FULL_INTENSITY);
+		cloud.add(3., 0., 0., OPAQUE_BLACK, -SIZE, PointCloud.FULL_INTENSITY);
+		cloud.add(4., 0., 0., OPAQUE_BLACK, SIZE, (short) 0);
+		// Barely visible, but still visible.
+		cloud.add(5., 0., 0., 0x01000000, SIZE, (short) 1);
+
+		StubEngine engine = new StubEngine();
+		ProjectedPoints projected = cloud.project(engine, CAMERA);
+
+		assertEquals(1, projected.count);
+		assertEquals(4, projected.sourceIndices[0]);
+		assertEquals(1, engine.projectedPoints.size());
+		assertArrayEquals(new double[] {5., 0., 0.}, engine.projectedPoints.get(0), 0.);
+	}
+
+	@Test
+	void project_treatsIntensitiesAsUnsigned () {
+		// Both of these are negative as a short, but they are bright rather than invisible.
+		PointCloud cloud = new PointCloud(2);
+		cloud.add(1., 0., 0., OPAQUE_BLACK, SIZE, PointCloud.FULL_INTENSITY);
+		cloud.add(2., 0., 0., OPAQUE_BLACK, SIZE, (short) 0x8000);
+
+		assertEquals(2, cloud.project(new StubEngine(), CAMERA).count);
+	}
+
+
+	// STORAGE AND VERSIONS
+
+	@Test
+	void growingKeepsEveryPoint () {
+		PointCloud cloud = new PointCloud(1);
+		for (int i = 0; i < 100; i++)
+			cloud.add(i, i * 2, i * 3, i, i, (short) i);
+
+		assertEquals(100, cloud.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, cloud.getCoordinates()[i * 3], 0.);
+			assertEquals(i * 2, cloud.getCoordinates()[i * 3 + 1], 0.);
+			assertEquals(i * 3, cloud.getCoordinates()[i * 3 + 2], 0.);
+			assertEquals(i, cloud.getColors()[i]);
+			assertEquals(i, cloud.getSizes()[i], 0f);
+			assertEquals(i, cloud.getIntensities()[i]);
+		}
+	}
+
+	@Test
+	void everyChangeBumpsTheVersion () {
+		PointCloud cloud = new PointCloud(1);
+		long version = cloud.getVersion();
+
+		cloud.add(0., 0., 0., OPAQUE_BLACK, SIZE, PointCloud.FULL_INTENSITY);
+		assertNotEquals(version, version = cloud.getVersion());
+		cloud.setPosition(0, 1., 2., 3.);
+		assertNotEquals(version, version = cloud.getVersion());
+		cloud.setColor(0, 0xFFFF0000);
+		assertNotEquals(version, version = cloud.getVersion());
+		cloud.setSize(0, SIZE * 2);
+		assertNotEquals(version, version = cloud.getVersion());
+		cloud.setIntensity(0, (short) 1);
+		assertNotEquals(version, version = cloud.getVersion());
+		cloud.clear();
+		assertNotEquals(version, cloud.getVersion());
+	}
+
+	@Test
+	void settersChangeThePoint () {
+		PointCloud cloud = new PointCloud(1);
+		cloud.add(0., 0., 0., OPAQUE_BLACK, SIZE, PointCloud.FULL_INTENSITY);
+		cloud.setPosition(0, 1., 2., 3.);
+		cloud.setColor(0, 0xFFFF0000);
+		cloud.setSize(0, SIZE * 2);
+		cloud.setIntensity(0, (short) 7);
+
+		assertArrayEquals(new double[] {1., 2., 3.}, Arrays.copyOf(cloud.getCoordinates(), 3), 0.);
+		assertEquals(0xFFFF0000, cloud.getColors()[0]);
+		assertEquals(SIZE * 2, cloud.getSizes()[0], 0f);
+		assertEquals(7, cloud.getIntensities()[0]);
+	}
+
+	@Test
+	void settersRejectPointsThatDoNotExist () {
+		PointCloud cloud = new PointCloud(4);
+		cloud.add(0., 0., 0., OPAQUE_BLACK, SIZE, PointCloud.FULL_INTENSITY);
+
+		// The backing arrays have room for index 1, but there is no point there.
+		assertThrows(IndexOutOfBoundsException.class, () -> cloud.setColor(1, OPAQUE_BLACK));
+		assertThrows(IndexOutOfBoundsException.class, () -> cloud.setPosition(-1, 0., 0., 0.));
+	}
+}
@@ -0,0 +1,170 @@
+package main.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.math3.linear.RealVector;
+
+import main.java.AspectRatio;
+import main.java.Camera;
+import main.java.Coordinate;
+import main.java.Orientation;
+
+/*
+ * Generates cameras and target points for the differential tests. Everything comes from a single seeded
+ * `Random`, so the same seed and size always produce exactly the same corpus, and a failing sample can
+ * be found again from its seed and index alone.
+ */
+final class ProjectionCorpus {
+
+	enum Kind {
+		// A point somewhere around the frame, seen from an arbitrary camera.
+		RANDOM,
+		// A point anywhere in space, most of which will not be on the canvas.
+		ANYWHERE,
+		// The camera is looking straight up or straight down, where yaw and roll start to overlap.
+		PITCH_AT_POLE,
+		// A point behind the camera, or exactly level with it.
+		BEHIND_CAMERA,
+		// A point exactly on one of the edges of the frame. Which side of the edge it ends up on is down
+		// to rounding, so disagreements about whether these are visible are only reported.
+		FRAME_EDGE,
+		// A point a hair's breadth inside one of the edges of the frame.
+		JUST_INSIDE_EDGE,
+		// A point a hair's breadth outside one of the edges of the frame.
+		JUST_OUTSIDE_EDGE,
+		// A point on the line of sight, which should always land in the middle of the canvas.
+		LINE_OF_SIGHT
+	}
+
+	static final class Sample {
+		final int index;
+		final Kind kind;
+		final Camera camera;
+		final RealVector targetPoint;
+
+		private Sample (int index, Kind kind, Camera camera, RealVector targetPoint) {
+			this.index = index;
+			this.kind = kind;
+			this.camera = camera;
+			this.targetPoint = targetPoint;
+		}
+
+		@Override
+		public String toString () {
+			Coordinate coords = camera.camCoords;
+			Orientation orientation = camera.orientation;
+			return String.format(
+					"#%d %s camera=(%.17g, %.17g, %.17g) yaw=%.17g pitch=%.17g roll=%.17g canvas=%dx%d divergence=%.17g point=%s",
+					index, kind,
+					coords.getX(), coords.getY(), coords.getZ(),
+					orientation.getYaw(), orientation.getPitch(), orientation.getRoll(),
+					camera.aspectRatio.getWidth(), camera.aspectRatio.getHeight(),
+					camera.divergenceAngle, targetPoint);
+		}
+	}
+
+	private static final Kind[] KINDS = Kind.values();
+
+	// How far the JUST_INSIDE_EDGE and JUST_OUTSIDE_EDGE points are from the edge, relative to the size of
+	// the frame. It has to be comfortably bigger than the rounding error in the coordinates themselves,
+	// which can be a few ulps of values around 100 while the frame is only a fraction of a unit across.
+	static final double EDGE_EPSILON = 1e-9;
+
+	private final Random random;
+
+	private ProjectionCorpus (long seed) {
+		this.random = new Random(seed);
+	}
+
+	/*
+	 * @param seed the seed for the corpus.
+	 * @param size the number of samples.
+	 * @return `size` samples, spread evenly over all of the kinds.
+	 */
+	static List<Sample> generate (long seed, int size) {
+		ProjectionCorpus corpus = new ProjectionCorpus(seed);
+		List<Sample> samples = new ArrayList<>(size);
+		for (int index = 0; index < size; index++)
+			samples.add(corpus.nextSample(index, KINDS[index % KINDS.length]));
+		return samples;
+	}
+
+	private Sample nextSample (int index, Kind kind) {
+		double pitch;
+		if (kind == Kind.PITCH_AT_POLE)
+			pitch = random.nextBoolean() ? Math.PI / 2 : -Math.PI / 2;
+		else
+			pitch = between(-Math.PI / 2, Math.PI / 2);
+
+		Camera camera = nextCamera(pitch);
+		double depth = between(0.01, 100.);
+		double halfWidth = ReferenceProjection.halfWidthAt(camera, depth);
+		double halfHeight = ReferenceProjection.halfHeightAt(camera, depth);
+
+		RealVector targetPoint;
+		switch (kind) {
+		case ANYWHERE:
+			targetPoint = ReferenceProjection.toRealVector(nextCoordinate(100.));
+			break;
+		case BEHIND_CAMERA:
+			// Every so often, put the point exactly level with the camera.
+			double behind = random.nextInt(8) == 0 ? 0. : -depth;
+			targetPoint = ReferenceProjection.fromCameraSpace(camera, behind, between(-halfWidth, halfWidth), between(-halfHeight, halfHeight));
+			break;
+		case FRAME_EDGE:
+			targetPoint = nextEdgePoint(camera, depth, halfWidth, halfHeight, 1.);
+			break;
+		case JUST_INSIDE_EDGE:
+			targetPoint = nextEdgePoint(camera, depth, halfWidth, halfHeight, 1. - EDGE_EPSILON);
+			break;
+		case JUST_OUTSIDE_EDGE:
+			targetPoint = nextEdgePoint(camera, depth, halfWidth, halfHeight, 1. + EDGE_EPSILON);
+			break;
+		case LINE_OF_SIGHT:
+			targetPoint = ReferenceProjection.fromCameraSpace(camera, depth, 0., 0.);
+			break;
+		default:
+			// Reach a little past the edges of the frame so that some of these are culled as well.
+			double overshoot = 1.25;
+			targetPoint = ReferenceProjection.fromCameraSpace(camera, depth,
+					between(-halfWidth * overshoot, halfWidth * overshoot),
+					between(-halfHeight * overshoot, halfHeight * overshoot));
+			break;
+		}
+		return new Sample(index, kind, camera, targetPoint);
+	}
+
+	/*
+	 * @param scale how far out to put the point, as a multiple of the distance from the center of the frame
+	 * to the edge. The point's other coordinate stays well away from the corners, so that it is only ever
+	 * near one edge at a time.
+	 * @return a point near one of the four edges of the frame.
+	 */
+	private RealVector nextEdgePoint (Camera camera, double depth, double halfWidth, double halfHeight, double scale) {
+		double awayFromTheCorners = 0.9;
+		double sign = random.nextBoolean() ? 1. : -1.;
+		if (random.nextBoolean())
+			return ReferenceProjection.fromCameraSpace(camera, depth, sign * halfWidth * scale,
+					between(-halfHeight * awayFromTheCorners, halfHeight * awayFromTheCorners));
+		else
+			return ReferenceProjection.fromCameraSpace(camera, depth,
+					between(-halfWidth * awayFromTheCorners, halfWidth * awayFromTheCorners), sign * halfHeight * scale);
+	}
+
+	private Camera nextCamera (double pitch) {
+		AspectRatio aspectRatio = new AspectRatio(1 + random.nextInt(1920), 1 + random.nextInt(1080));
+		Orientation orientation = new Orientation(between(0., 2 * Math.PI), pitch, between(0., 2 * Math.PI));
+		double divergenceAngle = between(Math.toRadians(5), Math.toRadians(80));
+		return new Camera(aspectRatio, orientation, nextCoordinate(10.), divergenceAngle);
+	}
+
+	private Coordinate nextCoordinate (double range) {
+		return new Coordinate(between(-range, range), between(-range, range), between(-range, range));
+	}
+
+	private double between (double min, double max) {
+		return min + (max - min) * random.nextDouble();
+	}
+}
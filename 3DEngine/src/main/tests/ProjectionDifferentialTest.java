@@ -0,0 +1,318 @@
+package main.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import main.java.AspectRatio;
+import main.java.Calculations;
+import main.java.Camera;
+import main.java.Coordinate;
+import main.java.Orientation;
+import main.java.ProjectionEngine;
+import main.tests.ProjectionCorpus.Kind;
+import main.tests.ProjectionCorpus.Sample;
+
+/*
+ * Runs every `ProjectionEngine` over the same seeded corpus as `ReferenceProjection` and reports
+ * where they disagree. Any faster projection path should be added to `ENGINES` so that it is held to
+ * exactly the same standard as the original.
+ *
+ * The seed and the size of the corpus can be changed with -Dprojection.seed and
+ * -Dprojection.corpusSize. Every reported disagreement includes its index in the corpus, so a failure
+ * can always be reproduced with the same seed.
+ */
+class ProjectionDifferentialTest {
+
+	private static final long SEED = Long.getLong("projection.seed", 20220919L);
+	private static final int CORPUS_SIZE = Integer.getInteger("projection.corpusSize", 60000);
+
+	// Engines are allowed to round differently from the reference, but not by more than this.
+	private static final int PIXEL_TOLERANCE = 1;
+	private static final int EXAMPLES_PER_REPORT = 10;
+
+	private static final Map<String, ProjectionEngine> ENGINES = new LinkedHashMap<>();
+	static {
+		ENGINES.put("Calculations", Calculations::convert3DRealVectorTo2DRealVector);
+	}
+
+	private static final List<Sample> CORPUS = ProjectionCorpus.generate(SEED, CORPUS_SIZE);
+	private static final ProjectionEngine REFERENCE = new ReferenceProjection();
+
+
+	// REPORTING
+
+	/*
+	 * Tallies the disagreements between an engine and the reference for each kind of sample.
+	 */
+	private static final class DisagreementReport {
+		private final String engineName;
+		private final EnumMap<Kind, int[]> counts = new EnumMap<>(Kind.class);
+		private final List<String> examples = new ArrayList<>();
+		private int worstPixelError = 0;
+
+		// Indices into the arrays in `counts`.
+		private static final int SAMPLES = 0;
+		private static final int VISIBILITY_MISMATCHES = 1;
+		private static final int PIXEL_MISMATCHES = 2;
+		private static final int EXCEPTIONS = 3;
+
+		private DisagreementReport (String engineName) {
+			this.engineName = engineName;
+			for (Kind kind : Kind.values())
+				counts.put(kind, new int[4]);
+		}
+
+		private void record (Sample sample, int[] expected, int[] actual) {
+			int[] kindCounts = counts.get(sample.kind);
+			kindCounts[SAMPLES]++;
+
+			if ((expected == null) != (actual == null)) {
+				kindCounts[VISIBILITY_MISMATCHES]++;
+				addExample(sample, describe(expected), describe(actual));
+				return;
+			}
+			if (expected == null)
+				return;
+
+			int pixelError = Math.max(Math.abs(expected[0] - actual[0]), Math.abs(expected[1] - actual[1]));
+			worstPixelError = Math.max(worstPixelError, pixelError);
+			if (pixelError > PIXEL_TOLERANCE) {
+				kindCounts[PIXEL_MISMATCHES]++;
+				addExample(sample, describe(expected), describe(actual));
+			}
+		}
+
+		private void recordException (Sample sample, RuntimeException exception) {
+			int[] kindCounts = counts.get(sample.kind);
+			kindCounts[SAMPLES]++;
+			kindCounts[EXCEPTIONS]++;
+			addExample(sample, "", exception.toString());
+		}
+
+		private void addExample (Sample sample, String expected, String actual) {
+			if (examples.size() < EXAMPLES_PER_REPORT)
+				examples.add(sample + " expected " + expected + " but was " + actual);
+		}
+
+		private static String describe (int[] pixel) {
+			return pixel == null ? "off the canvas" : "(" + pixel[0] + ", " + pixel[1] + ")";
+		}
+
+		/*
+		 * Points exactly on the edge of the frame may fall either side of it depending on rounding, so
+		 * a visibility mismatch there is reported but not counted as a failure. The points just inside
+		 * and just outside the edges are what actually hold engines to the edge of the frame.
+		 */
+		private int failures () {
+			int failures = 0;
+			for (Map.Entry<Kind, int[]> entry : counts.entrySet()) {
+				int[] kindCounts = entry.getValue();
+				failures += kindCounts[PIXEL_MISMATCHES] + kindCounts[EXCEPTIONS];
+				if (entry.getKey() != Kind.FRAME_EDGE)
+					failures += kindCounts[VISIBILITY_MISMATCHES];
+			}
+			return failures;
+		}
+
+		@Override
+		public String toString () {
+			StringBuilder report = new StringBuilder();
+			report.append(String.format("%s vs reference (seed %d, %d samples, worst pixel error %d)%n",
+					engineName, SEED, CORPUS.size(), worstPixelError));
+			report.append(String.format("  %-17s %8s %10s %8s %10s%n", "kind", "samples", "visibility", "pixel", "exceptions"));
+			for (Map.Entry<Kind, int[]> entry : counts.entrySet()) {
+				int[] kindCounts = entry.getValue();
+				report.append(String.format("  %-17s %8d %10d %8d %10d%n", entry.getKey(),
+						kindCounts[SAMPLES], kindCounts[VISIBILITY_MISMATCHES], kindCounts[PIXEL_MISMATCHES], kindCounts[EXCEPTIONS]));
+			}
+			for (String example : examples)
+				report.append("  ").append(example).append(System.lineSeparator());
+			return report.toString();
+		}
+	}
+
+	private static DisagreementReport compareWithReference (String engineName, ProjectionEngine engine) {
+		DisagreementReport report = new DisagreementReport(engineName);
+		for (Sample sample : CORPUS) {
+			int[] expected = REFERENCE.project(sample.camera, sample.targetPoint);
+			try {
+				report.record(sample, expected, engine.project(sample.camera, sample.targetPoint));
+			}
+			catch (RuntimeException e) {
+				report.recordException(sample, e);
+			}
+		}
+		return report;
+	}
+
+
+	// DIFFERENTIAL TESTS
+
+	@TestFactory
+	Stream<DynamicTest> everyEngineAgreesWithTheReference () {
+		return ENGINES.entrySet().stream().map(engine -> DynamicTest.dynamicTest(engine.getKey(), () -> {
+			DisagreementReport report = compareWithReference(engine.getKey(), engine.getValue());
+			System.out.print(report);
+			assertEquals(report.toString(), 0, report.failures());
+		}));
+	}
+
+
+	// THE CORPUS AND THE REFERENCE ITSELF
+
+	@Test
+	void corpus_isReproducible () {
+		List<Sample> again = ProjectionCorpus.generate(SEED, CORPUS_SIZE);
+		for (int index = 0; index < CORPUS_SIZE; index++)
+			assertEquals(CORPUS.get(index).toString(), again.get(index).toString());
+	}
+
+	@Test
+	void reference_lineOfSightLandsInTheMiddle () {
+		for (Sample sample : CORPUS) {
+			if (sample.kind != Kind.LINE_OF_SIGHT)
+				continue;
+			int[] expected = {sample.camera.aspectRatio.getWidth() / 2, sample.camera.aspectRatio.getHeight() / 2};
+			int[] actual = REFERENCE.project(sample.camera, sample.targetPoint);
+			assertNotNull(sample.toString(), actual);
+			assertTrue(sample.toString(), Math.abs(expected[0] - actual[0]) <= PIXEL_TOLERANCE);
+			assertTrue(sample.toString(), Math.abs(expected[1] - actual[1]) <= PIXEL_TOLERANCE);
+		}
+	}
+
+	@Test
+	void reference_pointsBehindTheCameraAreCulled () {
+		for (Sample sample : CORPUS)
+			if (sample.kind == Kind.BEHIND_CAMERA)
+				assertNull(sample.toString(), REFERENCE.project(sample.camera, sample.targetPoint));
+	}
+
+	@Test
+	void reference_pointsJustInsideTheEdgesAreVisible () {
+		for (Sample sample : CORPUS)
+			if (sample.kind == Kind.JUST_INSIDE_EDGE)
+				assertNotNull(sample.toString(), REFERENCE.project(sample.camera, sample.targetPoint));
+	}
+
+	@Test
+	void reference_pointsJustOutsideTheEdgesAreCulled () {
+		for (Sample sample : CORPUS)
+			if (sample.kind == Kind.JUST_OUTSIDE_EDGE)
+				assertNull(sample.toString(), REFERENCE.project(sample.camera, sample.targetPoint));
+	}
+
+	@Test
+	void reference_pixelsAreAlwaysOnTheCanvas () {
+		for (Sample sample : CORPUS) {
+			int[] pixel = REFERENCE.project(sample.camera, sample.targetPoint);
+			if (pixel == null)
+				continue;
+			assertTrue(sample.toString(), 0 <= pixel[0] && pixel[0] < sample.camera.aspectRatio.getWidth());
+			assertTrue(sample.toString(), 0 <= pixel[1] && pixel[1] < sample.camera.aspectRatio.getHeight());
+		}
+	}
+
+	@Test
+	void reference_isScaleInvariantAlongLineOfSight () {
+		for (Sample sample : CORPUS) {
+			if (sample.kind != Kind.RANDOM && sample.kind != Kind.PITCH_AT_POLE)
+				continue;
+			// Moving the point further along the line of sight and scaling it outwards by the same amount
+			// should leave it on the same pixel.
+			RealVector camCoords = ReferenceProjection.toRealVector(sample.camera.camCoords);
+			RealVector scaled = sample.targetPoint.subtract(camCoords).mapMultiply(2.).add(camCoords);
+			int[] original = REFERENCE.project(sample.camera, sample.targetPoint);
+			int[] moved = REFERENCE.project(sample.camera, scaled);
+			if (original == null || moved == null)
+				continue;
+			assertTrue(sample.toString(), Math.abs(original[0] - moved[0]) <= PIXEL_TOLERANCE);
+			assertTrue(sample.toString(), Math.abs(original[1] - moved[1]) <= PIXEL_TOLERANCE);
+		}
+	}
+
+	@Test
+	void reference_cameraSpaceLandsOnTheExpectedPixel () {
+		// Fractions of the way across the canvas to aim for. Every one of them is turned into the center of
+		// a pixel, so the expected pixel is exact rather than being on a boundary between two pixels.
+		double[] fractions = {0.05, 0.25, 0.5, 0.75, 0.95};
+		for (Sample sample : CORPUS) {
+			if (sample.kind != Kind.RANDOM && sample.kind != Kind.PITCH_AT_POLE)
+				continue;
+			Camera camera = sample.camera;
+			int width = camera.aspectRatio.getWidth();
+			int height = camera.aspectRatio.getHeight();
+			double depth = 1. + sample.index % 50;
+			for (double xFraction : fractions) {
+				for (double yFraction : fractions) {
+					int[] expected = {(int) (xFraction * width), (int) (yFraction * height)};
+					double xRatio = (expected[0] + 0.5) / width;
+					// The canvas' Y axis points down, but the camera's up vector points up.
+					double yRatio = 1. - (expected[1] + 0.5) / height;
+					RealVector targetPoint = ReferenceProjection.fromCameraSpace(camera, depth,
+							(2 * xRatio - 1) * ReferenceProjection.halfWidthAt(camera, depth),
+							(2 * yRatio - 1) * ReferenceProjection.halfHeightAt(camera, depth));
+
+					assertArrayEquals(sample.toString(), expected, REFERENCE.project(camera, targetPoint));
+				}
+			}
+		}
+	}
+
+	/*
+	 * Cameras simple enough that the answer can be worked out by hand, so that the reference is checked
+	 * against something other than itself. All of them have a 200x100 canvas and a divergence angle of
+	 * 45 degrees, so at a depth of 1 the corner is 1 unit from the center, half the width of the frame is
+	 * 2 / sqrt(5) and half the height is 1 / sqrt(5). The point is aimed at the center of pixel (130, 70).
+	 */
+	@Test
+	void reference_handWorkedCameras () {
+		AspectRatio aspectRatio = new AspectRatio(200, 100);
+		Coordinate origin = new Coordinate(0., 0., 0.);
+		double halfWidth = 2 / Math.sqrt(5);
+		double halfHeight = 1 / Math.sqrt(5);
+		double right = (2 * 130.5 / 200 - 1) * halfWidth;
+		double up = (2 * (1 - 70.5 / 100) - 1) * halfHeight;
+		int[] expected = {130, 70};
+
+		// Looking down the Z axis, with X to the right and Y up.
+		Camera straightAhead = new Camera(aspectRatio, new Orientation(0., 0., 0.), origin, Math.PI / 4);
+		assertArrayEquals(expected, REFERENCE.project(straightAhead, vector(right, up, 1.)));
+
+		// Yawed a quarter turn, so looking down the negative X axis with Z to the right.
+		// Twice as far away, so the frame is twice as big.
+		Camera yawed = new Camera(aspectRatio, new Orientation(Math.PI / 2, 0., 0.), origin, Math.PI / 4);
+		assertArrayEquals(expected, REFERENCE.project(yawed, vector(-2., 2 * up, 2 * right)));
+
+		// Rolled a quarter turn, so the right hand side of the canvas is Y and the top is negative X.
+		Camera rolled = new Camera(aspectRatio, new Orientation(0., 0., Math.PI / 2), origin, Math.PI / 4);
+		assertArrayEquals(expected, REFERENCE.project(rolled, vector(-up, right, 1.)));
+
+		// Pitched straight down, so looking down the negative Y axis with Z at the top of the canvas.
+		Camera lookingDown = new Camera(aspectRatio, new Orientation(0., Math.PI / 2, 0.), origin, Math.PI / 4);
+		assertArrayEquals(expected, REFERENCE.project(lookingDown, vector(right, -1., up)));
+
+		// The same point moved behind the camera.
+		assertNull(REFERENCE.project(straightAhead, vector(right, up, -1.)));
+	}
+
+	private static RealVector vector (double x, double y, double z) {
+		double[] data = {x, y, z};
+		return new ArrayRealVector(data, false);
+	}
+}
@@ -0,0 +1,213 @@
+package main.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.awt.image.BufferedImage;
+
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import main.java.AspectRatio;
+import main.java.Camera;
+import main.java.Coordinate;
+import main.java.Orientation;
+import main.java.PointCloud;
+import main.java.ProjectedPoints;
+import main.java.ProjectionEngine;
+import main.java.Rasterizer;
+
+class RasterizerTest {
+
+	private static final int WIDTH = 20;
+	private static final int HEIGHT = 10;
+	private static final int WHITE = 0xFFFFFF;
+
+	// Sizes are a fraction of the width, so these are radii of half a pixel and one pixel.
+	private static final float SINGLE_PIXEL = 0.5f / WIDTH;
+	private static final float ONE_PIXEL_RADIUS = 1f / WIDTH;
+
+	private static final Camera CAMERA = new Camera(new AspectRatio(WIDTH, HEIGHT), new Orientation(0., 0., 0.), new Coordinate(0., 0., 0.));
+
+	// Puts (x, y, z) on pixel (x, y).
+	private static final ProjectionEngine STUB_ENGINE = (Camera camera, RealVector targetPoint) ->
+			new int[] {(int) targetPoint.getEntry(0), (int) targetPoint.getEntry(1)};
+
+	private PointCloud cloud;
+	private BufferedImage frame;
+
+
+	// HELPERS
+
+	@BeforeEach
+	void setUp () {
+		cloud = new PointCloud(4);
+		frame = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < HEIGHT; y++)
+			for (int x = 0; x < WIDTH; x++)
+				frame.setRGB(x, y, WHITE);
+	}
+
+	private void rasterize () {
+		ProjectedPoints projected = cloud.project(STUB_ENGINE, CAMERA);
+		Rasterizer.rasterize(cloud, projected, frame);
+	}
+
+	// The frame has no alpha channel, so only the red, green and blue are compared.
+	private int pixel (int x, int y) {
+		return frame.getRGB(x, y) & 0xFFFFFF;
+	}
+
+	private void assertPixel (int expected, int x, int y) {
+		assertEquals(String.format("pixel (%d, %d): expected %06x but was %06x", x, y, expected, pixel(x, y)), expected, pixel(x, y));
+	}
+
+
+	// COLORS
+
+	@Test
+	void opaqueColorAtFullIntensityIsDrawnAsIs () {
+		cloud.add(4., 3., 0., 0xFF336699, SINGLE_PIXEL, PointCloud.FULL_INTENSITY);
+		rasterize();
+
+		assertPixel(0x336699, 4, 3);
+		assertPixel(WHITE, 5, 3);
+		assertPixel(WHITE, 4, 4);
+	}
+
+	@Test
+	void intensityScalesRedGreenAndBlue () {
+		// 0x8000 / 0xFFFF is just over a half: 0x33 -> 25, 0x66 -> 51 and 0x99 -> 76, rounding down.
+		cloud.add(4., 3., 0., 0xFF336699, SINGLE_PIXEL, (short) 0x8000);
+		rasterize();
+
+		assertPixel(0x19334C, 4, 3);
+	}
+
+	@Test
+	void lowIntensityIsNotMistakenForANegativeOne () {
+		cloud.add(4., 3., 0., 0xFFFFFFFF, SINGLE_PIXEL, (short) 0x0101);
+		rasterize();
+
+		// 0xFF * 0x0101 / 0xFFFF = 1
+		assertPixel(0x010101, 4, 3);
+	}
+
+	@Test
+	void translucentColorIsBlendedWithWhatIsAlreadyThere () {
+		// Half transparent red over white: (0xFF * 0x80 + 0xFF * 0x7F) / 0xFF = 0xFF for red, and
+		// (0x00 * 0x80 + 0xFF * 0x7F) / 0xFF = 0x7F for green and blue.
+		cloud.add(4., 3., 0., 0x80FF0000, SINGLE_PIXEL, PointCloud.FULL_INTENSITY);
+		rasterize();
+
+		assertPixel(0xFF7F7F, 4, 3);
+	}
+
+	@Test
+	void translucentColorsBlendWithEachOther () {
+		cloud.add(4., 3., 0., 0xFF0000FF, SINGLE_PIXEL, PointCloud.FULL_INTENSITY);
+		cloud.add(4., 3., 0., 0x80FF0000, SINGLE_PIXEL, PointCloud.FULL_INTENSITY);
+		rasterize();
+
+		// Red: 0xFF * 0x80 / 0xFF = 0x80. Blue: 0xFF * 0x7F / 0xFF = 0x7F.
+		assertPixel(0x80007F, 4, 3);
+	}
+
+
+	// SHAPE AND ORDER
+
+	@Test
+	void radiusOfOnePixelDrawsAPlus () {
+		cloud.add(4., 3., 0., 0xFF000000, ONE_PIXEL_RADIUS, PointCloud.FULL_INTENSITY);
+		rasterize();
+
+		assertPixel(0, 4, 3);
+		assertPixel(0, 3, 3);
+		assertPixel(0, 5, 3);
+		assertPixel(0, 4, 2);
+		assertPixel(0, 4, 4);
+		// The corners are sqrt(2) pixels away, which is outside the circle.
+		assertPixel(WHITE, 3, 2);
+		assertPixel(WHITE, 5, 4);
+	}
+
+	@Test
+	void sizeScalesWithTheWidthOfTheFrame () {
+		// This frame starts out black, so the point is drawn in white.
+		frame = new BufferedImage(WIDTH * 2, HEIGHT * 2, BufferedImage.TYPE_INT_RGB);
+		cloud.add(4., 3., 0., 0xFFFFFFFF, ONE_PIXEL_RADIUS, PointCloud.FULL_INTENSITY);
+		rasterize();
+
+		// Twice the width, so a radius of two pixels.
+		assertPixel(WHITE, 6, 3);
+		assertPixel(0, 7, 3);
+	}
+
+	@Test
+	void laterPointsAreDrawnOverEarlierOnes () {
+		cloud.add(4., 3., 0., 0xFFFF0000, ONE_PIXEL_RADIUS, PointCloud.FULL_INTENSITY);
+		cloud.add(5., 3., 0., 0xFF0000FF, ONE_PIXEL_RADIUS, PointCloud.FULL_INTENSITY);
+		rasterize();
+
+		assertPixel(0xFF0000, 3, 3);
+		// Both circles cover these, and the second one wins.
+		assertPixel(0x0000FF, 4, 3);
+		assertPixel(0x0000FF, 5, 3);
+		assertPixel(0x0000FF, 6, 3);
+	}
+
+	@Test
+	void pointsNearTheEdgesAreClipped () {
+		cloud.add(0., 0., 0., 0xFF000000, ONE_PIXEL_RADIUS * 3, PointCloud.FULL_INTENSITY);
+		cloud.add(WIDTH - 1, HEIGHT - 1, 0., 0xFF000000, ONE_PIXEL_RADIUS * 3, PointCloud.FULL_INTENSITY);
+		rasterize();
+
+		assertPixel(0, 0, 0);
+		assertPixel(0, WIDTH - 1, HEIGHT - 1);
+		assertPixel(WHITE, WIDTH / 2, HEIGHT / 2);
+	}
+
+	@Test
+	void subImagesAreDrawnInTheRightPlace () {
+		BufferedImage whole = frame;
+		frame = whole.getSubimage(5, 2, 10, 6);
+		cloud.add(1., 1., 0., 0xFF000000, ONE_PIXEL_RADIUS * 2, PointCloud.FULL_INTENSITY);
+		rasterize();
+
+		// The point is one pixel in from the corner of the sub-image, and the sub-image is half as wide,
+		// so this is a radius of one pixel around (6, 3) in the whole frame.
+		frame = whole;
+		assertPixel(0, 6, 3);
+		assertPixel(0, 5, 3);
+		assertPixel(0, 6, 2);
+		assertPixel(WHITE, 4, 3);
+		assertPixel(WHITE, 1, 1);
+		assertPixel(WHITE, 5, 2);
+	}
+
+	@Test
+	void pointsAreClippedToTheSubImage () {
+		BufferedImage whole = frame;
+		frame = whole.getSubimage(5, 2, 10, 6);
+		cloud.add(0., 0., 0., 0xFF000000, ONE_PIXEL_RADIUS * 6, PointCloud.FULL_INTENSITY);
+		rasterize();
+
+		// A radius of three pixels, but nothing outside of the sub-image is touched.
+		frame = whole;
+		assertPixel(0, 5, 2);
+		assertPixel(0, 7, 2);
+		assertPixel(WHITE, 4, 2);
+		assertPixel(WHITE, 5, 1);
+		assertPixel(WHITE, 2, 2);
+	}
+
+	@Test
+	void rejectsFramesThatAreNotPackedInts () {
+		BufferedImage bytes = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+		cloud.add(4., 3., 0., 0xFF000000, SINGLE_PIXEL, PointCloud.FULL_INTENSITY);
+		ProjectedPoints projected = cloud.project(STUB_ENGINE, CAMERA);
+
+		assertThrows(IllegalArgumentException.class, () -> Rasterizer.rasterize(cloud, projected, bytes));
+	}
+}
@@ -0,0 +1,137 @@
+package main.tests;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+import main.java.Camera;
+import main.java.Coordinate;
+import main.java.Orientation;
+import main.java.ProjectionEngine;
+
+/*
+ * A deliberately slow and simple implementation of the 3D to 2D conversion that every other
+ * `ProjectionEngine` is checked against. Instead of going through the circle and the frame points,
+ * it builds the camera's basis vectors directly from the same rotation matrices that
+ * `findPointOnLineOfSight` uses, and measures the target point along each of them.
+ *
+ * Conventions (which every engine has to agree on):
+ * - Points that are behind the camera, or exactly level with it, are not on the canvas.
+ * - Points exactly on the edge of the frame are not on the canvas either.
+ * - A point lands in the pixel that contains it, so X is in [0, width) and Y is in [0, height),
+ * with (0, 0) in the top left corner.
+ */
+final class ReferenceProjection implements ProjectionEngine {
+
+	static RealVector toRealVector (Coordinate coordinate) {
+		double[] data = {coordinate.getX(), coordinate.getY(), coordinate.getZ()};
+		return new ArrayRealVector(data, false);
+	}
+
+	/*
+	 * @return the unit vector that is parallel to the camera's line of sight. This is
+	 * yawRotationMatrix * pitchRotationMatrix * (0, 0, 1) multiplied out by hand.
+	 */
+	static RealVector forward (Orientation orientation) {
+		double yaw = orientation.getYaw();
+		double pitch = orientation.getPitch();
+		double[] data = {
+				-Math.sin(yaw) * Math.cos(pitch),
+				-Math.sin(pitch),
+				Math.cos(yaw) * Math.cos(pitch)};
+		return new ArrayRealVector(data, false);
+	}
+
+	/*
+	 * @return the unit vector pointing towards the right hand side of the canvas. Without roll, this is
+	 * yawRotationMatrix * pitchRotationMatrix * (1, 0, 0). Roll then turns it about the line of sight.
+	 */
+	static RealVector right (Orientation orientation) {
+		double roll = orientation.getRoll();
+		return unrolledRight(orientation).mapMultiply(Math.cos(roll))
+				.add(unrolledUp(orientation).mapMultiply(Math.sin(roll)));
+	}
+
+	/*
+	 * @return the unit vector pointing towards the top of the canvas. Without roll, this is
+	 * yawRotationMatrix * pitchRotationMatrix * (0, 1, 0). Roll then turns it about the line of sight.
+	 */
+	static RealVector up (Orientation orientation) {
+		double roll = orientation.getRoll();
+		return unrolledRight(orientation).mapMultiply(-Math.sin(roll))
+				.add(unrolledUp(orientation).mapMultiply(Math.cos(roll)));
+	}
+
+	private static RealVector unrolledRight (Orientation orientation) {
+		double yaw = orientation.getYaw();
+		double[] data = {Math.cos(yaw), 0., Math.sin(yaw)};
+		return new ArrayRealVector(data, false);
+	}
+
+	private static RealVector unrolledUp (Orientation orientation) {
+		double yaw = orientation.getYaw();
+		double pitch = orientation.getPitch();
+		double[] data = {
+				-Math.sin(yaw) * Math.sin(pitch),
+				Math.cos(pitch),
+				Math.cos(yaw) * Math.sin(pitch)};
+		return new ArrayRealVector(data, false);
+	}
+
+	/*
+	 * @param depth the distance along the line of sight.
+	 * @return half the width of the frame at that distance, in world units.
+	 */
+	static double halfWidthAt (Camera camera, double depth) {
+		double cornerDistance = depth * Math.tan(camera.divergenceAngle);
+		return cornerDistance * Math.cos(cornerAngle(camera));
+	}
+
+	/*
+	 * @param depth the distance along the line of sight.
+	 * @return half the height of the frame at that distance, in world units.
+	 */
+	static double halfHeightAt (Camera camera, double depth) {
+		double cornerDistance = depth * Math.tan(camera.divergenceAngle);
+		return cornerDistance * Math.sin(cornerAngle(camera));
+	}
+
+	// The angle between the canvas' X axis and the line from the center to the top right corner.
+	private static double cornerAngle (Camera camera) {
+		return Math.atan2(camera.aspectRatio.getHeight(), camera.aspectRatio.getWidth());
+	}
+
+	/*
+	 * The inverse of what `project` measures: builds a world point from its distance along the line of
+	 * sight and its offsets along the canvas' axes.
+	 */
+	static RealVector fromCameraSpace (Camera camera, double depth, double rightOffset, double upOffset) {
+		Orientation orientation = camera.orientation;
+		return toRealVector(camera.camCoords)
+				.add(forward(orientation).mapMultiply(depth))
+				.add(right(orientation).mapMultiply(rightOffset))
+				.add(up(orientation).mapMultiply(upOffset));
+	}
+
+	@Override
+	public int[] project (Camera camera, RealVector targetPoint) {
+		Orientation orientation = camera.orientation;
+		RealVector relativeToCamera = targetPoint.subtract(toRealVector(camera.camCoords));
+
+		double depth = relativeToCamera.dotProduct(forward(orientation));
+		if (depth <= 0)
+			return null;
+
+		double halfWidth = halfWidthAt(camera, depth);
+		double halfHeight = halfHeightAt(camera, depth);
+		double xRatio = (relativeToCamera.dotProduct(right(orientation)) + halfWidth) / (2 * halfWidth);
+		double yRatio = (relativeToCamera.dotProduct(up(orientation)) + halfHeight) / (2 * halfHeight);
+		if (!(0 < xRatio && xRatio < 1 && 0 < yRatio && yRatio < 1))
+			return null;
+
+		int width = camera.aspectRatio.getWidth();
+		int height = camera.aspectRatio.getHeight();
+		int x = Math.min((int) (xRatio * width), width - 1);
+		int y = Math.min((int) ((1 - yRatio) * height), height - 1);
+		return new int[] {x, y};
+	}
+}